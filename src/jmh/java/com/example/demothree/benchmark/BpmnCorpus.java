@@ -0,0 +1,90 @@
+package com.example.demothree.benchmark;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 基准测试用的 BPMN 语料生成
+ * <p>
+ * 生成开始事件 + N 个串行用户任务 + 结束事件的流程，并附带完整的 BPMN-DI 图形布局，
+ * 文件大小随任务数线性增长，与实际建模工具导出的文件结构一致。
+ */
+public final class BpmnCorpus {
+
+    private BpmnCorpus() {
+    }
+
+    /**
+     * 生成流程文件内容
+     *
+     * @param processKey 流程定义key
+     * @param taskCount  用户任务数
+     * @param revision   修订号，写入文档说明，不同修订号生成的内容不同
+     */
+    public static byte[] generate(String processKey, int taskCount, long revision) {
+        StringBuilder xml = new StringBuilder(taskCount * 900 + 1024);
+        xml.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n")
+                .append("<definitions xmlns=\"http://www.omg.org/spec/BPMN/20100524/MODEL\"")
+                .append(" xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\"")
+                .append(" xmlns:flowable=\"http://flowable.org/bpmn\"")
+                .append(" xmlns:bpmndi=\"http://www.omg.org/spec/BPMN/20100524/DI\"")
+                .append(" xmlns:omgdc=\"http://www.omg.org/spec/DD/20100524/DC\"")
+                .append(" xmlns:omgdi=\"http://www.omg.org/spec/DD/20100524/DI\"")
+                .append(" targetNamespace=\"http://www.flowable.org/processdef\">\n");
+
+        xml.append("  <process id=\"").append(processKey).append("\" name=\"").append(processKey)
+                .append("\" isExecutable=\"true\">\n")
+                .append("    <documentation>revision ").append(revision).append("</documentation>\n")
+                .append("    <startEvent id=\"start\"/>\n");
+        String previous = "start";
+        for (int i = 0; i < taskCount; i++) {
+            String taskId = "task" + i;
+            xml.append("    <userTask id=\"").append(taskId).append("\" name=\"审批节点").append(i)
+                    .append("\" flowable:assignee=\"${assignee").append(i % 10).append("}\"/>\n");
+            appendFlow(xml, previous, taskId);
+            previous = taskId;
+        }
+        xml.append("    <endEvent id=\"end\"/>\n");
+        appendFlow(xml, previous, "end");
+        xml.append("  </process>\n");
+
+        xml.append("  <bpmndi:BPMNDiagram id=\"BPMNDiagram_").append(processKey).append("\">\n")
+                .append("    <bpmndi:BPMNPlane id=\"BPMNPlane_").append(processKey)
+                .append("\" bpmnElement=\"").append(processKey).append("\">\n");
+        appendShape(xml, "start", 0);
+        previous = "start";
+        for (int i = 0; i < taskCount; i++) {
+            String taskId = "task" + i;
+            appendShape(xml, taskId, i + 1);
+            appendEdge(xml, previous, taskId, i);
+            previous = taskId;
+        }
+        appendShape(xml, "end", taskCount + 1);
+        appendEdge(xml, previous, "end", taskCount);
+        xml.append("    </bpmndi:BPMNPlane>\n")
+                .append("  </bpmndi:BPMNDiagram>\n")
+                .append("</definitions>\n");
+        return xml.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void appendFlow(StringBuilder xml, String source, String target) {
+        xml.append("    <sequenceFlow id=\"flow_").append(source).append("_").append(target)
+                .append("\" sourceRef=\"").append(source).append("\" targetRef=\"").append(target).append("\"/>\n");
+    }
+
+    private static void appendShape(StringBuilder xml, String elementId, int index) {
+        xml.append("      <bpmndi:BPMNShape id=\"shape_").append(elementId).append("\" bpmnElement=\"")
+                .append(elementId).append("\">\n")
+                .append("        <omgdc:Bounds x=\"").append(100 + index * 150)
+                .append(".0\" y=\"100.0\" width=\"100.0\" height=\"80.0\"/>\n")
+                .append("      </bpmndi:BPMNShape>\n");
+    }
+
+    private static void appendEdge(StringBuilder xml, String source, String target, int index) {
+        xml.append("      <bpmndi:BPMNEdge id=\"edge_").append(source).append("_").append(target)
+                .append("\" bpmnElement=\"flow_").append(source).append("_").append(target).append("\">\n")
+                .append("        <omgdi:waypoint x=\"").append(200 + index * 150).append(".0\" y=\"140.0\"/>\n")
+                .append("        <omgdi:waypoint x=\"").append(250 + index * 150).append(".0\" y=\"140.0\"/>\n")
+                .append("      </bpmndi:BPMNEdge>\n");
+    }
+
+}
@@ -0,0 +1,186 @@
+package com.example.demothree.benchmark;
+
+import com.example.demothree.DemoThreeApplication;
+import com.example.demothree.flowable.service.SmartProcessDeploymentService;
+import org.flowable.engine.repository.Deployment;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 智能部署服务基准：查询已部署校验和与完整部署
+ * <p>
+ * 使用内嵌 H2（MySQL 兼容模式）启动完整的 Spring 上下文与 Flowable 引擎，每个参数组合独立建库。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DeploymentServiceBenchmark {
+
+    private static final String PROCESS_KEY = "benchmarkProcess";
+
+    @Param({"10", "200", "2000"})
+    private int taskCount;
+
+    private ConfigurableApplicationContext context;
+
+    private SmartProcessDeploymentService deploymentService;
+
+    private Map<String, String> processChecksums;
+
+    private long revision;
+
+    private NamedResource unchangedResource;
+
+    private NamedResource changedResource;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(DemoThreeApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.driver-class-name=org.h2.Driver",
+                        "spring.datasource.url=jdbc:h2:mem:bench" + taskCount + ";MODE=MySQL;DB_CLOSE_DELAY=-1",
+                        "spring.datasource.username=sa",
+                        "spring.datasource.password=",
+                        "spring.sql.init.mode=always",
+                        "spring.sql.init.schema-locations=classpath:sql/workflow-ext.sql",
+                        "spring.sql.init.continue-on-error=true",
+                        "flowable.database-schema-update=true",
+                        "mybatis-plus.configuration.log-impl=org.apache.ibatis.logging.nologging.NoLoggingImpl",
+                        "logging.level.root=WARN")
+                .run();
+        deploymentService = AopTestUtils.getTargetObject(context.getBean(SmartProcessDeploymentService.class));
+        processChecksums = castMap(ReflectionTestUtils.getField(deploymentService, "processChecksums"));
+
+        unchangedResource = new NamedResource(BpmnCorpus.generate(PROCESS_KEY, taskCount, revision));
+        Deployment deployment = deploymentService.deployResourceSmart(unchangedResource);
+        if (deployment == null) {
+            throw new IllegalStateException("基准流程初始部署失败");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (context != null) {
+            context.close();
+        }
+    }
+
+    /**
+     * 内存缓存命中
+     */
+    @Benchmark
+    public String getExistingChecksumCached() {
+        return invokeGetExistingChecksum();
+    }
+
+    @State(Scope.Thread)
+    public static class ColdTable {
+
+        @Setup(Level.Invocation)
+        public void reset(DeploymentServiceBenchmark benchmark) {
+            benchmark.processChecksums.clear();
+            ReflectionTestUtils.setField(benchmark.deploymentService, "checksumsLoaded", false);
+        }
+    }
+
+    /**
+     * 内存缓存为空，从校验和表一次加载
+     */
+    @Benchmark
+    public String getExistingChecksumFromTable(ColdTable coldTable) {
+        return invokeGetExistingChecksum();
+    }
+
+    @State(Scope.Thread)
+    public static class Recompute {
+
+        @Setup(Level.Invocation)
+        public void reset(DeploymentServiceBenchmark benchmark) {
+            benchmark.processChecksums.clear();
+            ReflectionTestUtils.setField(benchmark.deploymentService, "checksumsLoaded", true);
+        }
+    }
+
+    /**
+     * 内存与校验和表均未命中，下载部署资源重新计算并回填
+     */
+    @Benchmark
+    public String getExistingChecksumRecompute(Recompute recompute) {
+        return invokeGetExistingChecksum();
+    }
+
+    /**
+     * 内容未改变，跳过部署
+     */
+    @Benchmark
+    public Deployment deployUnchanged() {
+        return deploymentService.deployResourceSmart(unchangedResource);
+    }
+
+    @State(Scope.Thread)
+    public static class NextRevision {
+
+        @Setup(Level.Invocation)
+        public void prepare(DeploymentServiceBenchmark benchmark) {
+            benchmark.changedResource = new NamedResource(
+                    BpmnCorpus.generate(PROCESS_KEY, benchmark.taskCount, ++benchmark.revision));
+        }
+    }
+
+    /**
+     * 内容已改变，完整部署新版本
+     */
+    @Benchmark
+    public Deployment deployChanged(NextRevision nextRevision) {
+        return deploymentService.deployResourceSmart(changedResource);
+    }
+
+    private String invokeGetExistingChecksum() {
+        return ReflectionTestUtils.invokeMethod(deploymentService, "getExistingChecksum", PROCESS_KEY);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, String> castMap(Object value) {
+        return (Map<String, String>) value;
+    }
+
+    /**
+     * 带文件名的内存资源，部署服务按文件名生成资源名与部署名
+     */
+    private static class NamedResource extends ByteArrayResource {
+
+        NamedResource(byte[] bytes) {
+            super(bytes);
+        }
+
+        @Override
+        public String getFilename() {
+            return PROCESS_KEY + ".bpmn20.xml";
+        }
+    }
+
+}
@@ -0,0 +1,89 @@
+package com.example.demothree.benchmark;
+
+import com.example.demothree.flowable.util.BpmnProcessIdExtractor;
+import com.example.demothree.flowable.util.ProcessContentHasher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.w3c.dom.Document;
+import org.w3c.dom.Node;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.xpath.XPathConstants;
+import javax.xml.xpath.XPathFactory;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 部署前处理阶段基准：解析 process id 与计算校验和
+ * <p>
+ * 不依赖数据库，DOM + XPath 解析作为 StAX 解析的对照基线。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DeploymentStageBenchmark {
+
+    private static final String RESOURCE_NAME = "benchmark.bpmn20.xml";
+
+    @Param({"10", "200", "2000"})
+    private int taskCount;
+
+    private byte[] bpmn;
+
+    private ProcessContentHasher legacyHasher;
+    private ProcessContentHasher sha256Hasher;
+    private ProcessContentHasher canonicalHasher;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        bpmn = BpmnCorpus.generate("benchmarkProcess", taskCount, 0);
+        legacyHasher = new ProcessContentHasher("MD5", false);
+        sha256Hasher = new ProcessContentHasher("SHA-256", false);
+        canonicalHasher = new ProcessContentHasher("SHA-256", true);
+    }
+
+    @Benchmark
+    public String extractProcessId() {
+        return BpmnProcessIdExtractor.extractFirst(bpmn);
+    }
+
+    @Benchmark
+    public String extractProcessIdDom() throws Exception {
+        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+        factory.setNamespaceAware(true);
+        Document doc = factory.newDocumentBuilder().parse(new ByteArrayInputStream(bpmn));
+        Node node = (Node) XPathFactory.newInstance().newXPath()
+                .evaluate("//*[local-name()='process']/@id", doc, XPathConstants.NODE);
+        return node != null ? node.getNodeValue() : null;
+    }
+
+    @Benchmark
+    public String checksumLegacyMd5() throws IOException {
+        return legacyHasher.checksum(RESOURCE_NAME, new ByteArrayInputStream(bpmn));
+    }
+
+    @Benchmark
+    public String checksumSha256() throws IOException {
+        return sha256Hasher.checksum(RESOURCE_NAME, new ByteArrayInputStream(bpmn));
+    }
+
+    @Benchmark
+    public String checksumSha256Canonical() throws IOException {
+        return canonicalHasher.checksum(RESOURCE_NAME, new ByteArrayInputStream(bpmn));
+    }
+
+}
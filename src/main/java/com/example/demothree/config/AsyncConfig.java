@@ -1,5 +1,9 @@
 package com.example.demothree.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.flowable.spring.boot.process.Process;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.AsyncConfigurer;
 import org.springframework.scheduling.annotation.EnableAsync;
@@ -7,20 +11,106 @@ import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 import java.util.concurrent.Executor;
 
+/**
+ * 线程池配置：按任务类型划分线程池，大小与拒绝策略见 workflow.executors.*
+ */
 @Configuration
 @EnableAsync
+@RequiredArgsConstructor
 public class AsyncConfig implements AsyncConfigurer {
 
-    @Override
-    public Executor getAsyncExecutor() {
-        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
-        executor.setCorePoolSize(2); // 核心线程数
-        executor.setMaxPoolSize(5); // 最大线程数
-        executor.setQueueCapacity(100); // 队列容量
-        executor.setThreadNamePrefix("Async-Deploy-"); // 线程名前缀
+    private final WorkflowProperties workflowProperties;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * 异步部署线程池（@Async 默认）
+     */
+    @Bean("deploymentExecutor")
+    public ThreadPoolTaskExecutor deploymentExecutor() {
+        ThreadPoolTaskExecutor executor = InstrumentedExecutors.create("deployment", "Async-Deploy-",
+                workflowProperties.getExecutors().getDeployment(), meterRegistry);
         executor.setWaitForTasksToCompleteOnShutdown(true); // 应用关闭时等待任务完成
         executor.setAwaitTerminationSeconds(30); // 等待超时时间
-        executor.initialize();
         return executor;
     }
-}
\ No newline at end of file
+
+    @Override
+    public Executor getAsyncExecutor() {
+        return deploymentExecutor();
+    }
+
+    /**
+     * 流程进度并发查询线程池，饱和时由调用线程执行，退化为串行查询
+     */
+    @Bean("progressQueryExecutor")
+    public ThreadPoolTaskExecutor progressQueryExecutor() {
+        return InstrumentedExecutors.create("progress", "Progress-Query-",
+                workflowProperties.getExecutors().getProgress(), meterRegistry);
+    }
+
+    /**
+     * 流程部署流水线线程池：并行读取、解析、计算校验和，线程数与CPU核数一致
+     */
+    @Bean("deploymentPipelineExecutor")
+    public ThreadPoolTaskExecutor deploymentPipelineExecutor() {
+        return InstrumentedExecutors.create("pipeline", "Deploy-Pipeline-",
+                workflowProperties.getExecutors().getPipeline(), meterRegistry);
+    }
+
+    /**
+     * 批量流程操作线程池，与进度查询、部署互相隔离
+     */
+    @Bean("bulkOperationExecutor")
+    public ThreadPoolTaskExecutor bulkOperationExecutor() {
+        return InstrumentedExecutors.create("bulk", "Bulk-Op-",
+                workflowProperties.getExecutors().getBulk(), meterRegistry);
+    }
+
+    /**
+     * 旧版本部署清理线程池：单线程，清理任务依次执行，避免并发级联删除压垮数据库
+     */
+    @Bean("deploymentCleanupExecutor")
+    public ThreadPoolTaskExecutor deploymentCleanupExecutor() {
+        return InstrumentedExecutors.create("cleanup", "Deploy-Cleanup-",
+                workflowProperties.getExecutors().getCleanup(), meterRegistry);
+    }
+
+    /**
+     * 进度 SSE 推送线程池：队列满时拒绝，由推送服务关闭连接，
+     * 不能退化为调用线程执行（调用方是提交事务的引擎线程与心跳线程）
+     */
+    @Bean("sseExecutor")
+    public ThreadPoolTaskExecutor sseExecutor() {
+        WorkflowProperties.ExecutorProfile config = workflowProperties.getExecutors().getSse();
+        WorkflowProperties.ExecutorProfile profile = new WorkflowProperties.ExecutorProfile(
+                config.getCorePoolSize(), config.getMaxPoolSize(), config.getQueueCapacity(),
+                WorkflowProperties.RejectionPolicy.ABORT);
+        profile.setKeepAliveSeconds(config.getKeepAliveSeconds());
+        profile.setVirtualThreads(config.isVirtualThreads());
+        return InstrumentedExecutors.create("sse", "Progress-SSE-", profile, meterRegistry);
+    }
+
+    /**
+     * Spring MVC 异步请求线程池（流式响应写出），队列满时拒绝请求，不无限创建线程
+     */
+    @Bean("mvcAsyncExecutor")
+    public ThreadPoolTaskExecutor mvcAsyncExecutor() {
+        return InstrumentedExecutors.create("mvc-async", "Mvc-Async-",
+                workflowProperties.getExecutors().getMvcAsync(), meterRegistry);
+    }
+
+    /**
+     * Flowable 异步作业执行线程池，引擎按 @Process 限定符选用；
+     * 队列满时拒绝，由引擎把已获取的作业退回待获取状态
+     */
+    @Bean("asyncJobExecutor")
+    @Process
+    public ThreadPoolTaskExecutor asyncJobExecutor() {
+        WorkflowProperties.AsyncExecutor config = workflowProperties.getAsyncExecutor();
+        WorkflowProperties.ExecutorProfile profile = new WorkflowProperties.ExecutorProfile(
+                Math.max(1, config.getCorePoolSize()), config.getMaxPoolSize(), config.getQueueSize(),
+                WorkflowProperties.RejectionPolicy.ABORT);
+        profile.setVirtualThreads(config.isVirtualThreads());
+        return InstrumentedExecutors.create("async-job", "Flowable-Async-", profile, meterRegistry);
+    }
+}
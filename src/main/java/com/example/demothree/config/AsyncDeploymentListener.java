@@ -1,6 +1,7 @@
 package com.example.demothree.config;
 
 import com.example.demothree.flowable.service.AsyncProcessDeploymentService;
+import com.example.demothree.flowable.service.ProcessWarmupService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.context.event.ApplicationReadyEvent;
@@ -13,18 +14,20 @@ import org.springframework.stereotype.Component;
 public class AsyncDeploymentListener implements ApplicationListener<ApplicationReadyEvent> {
 
     private final AsyncProcessDeploymentService asyncDeploymentService;
+    private final ProcessWarmupService warmupService;
 
     @Override
     public void onApplicationEvent(ApplicationReadyEvent event) {
         log.info("🎯 应用启动完成，开始异步部署工作流...");
 
-        // 异步部署所有流程文件
+        // 异步部署所有流程文件，完成后预热流程定义，预热完成前就绪检查不通过
         asyncDeploymentService.deployAllProcessesAsync()
                 .thenRun(() -> log.info("🎉 所有工作流异步部署完成"))
                 .exceptionally(ex -> {
                     log.error("💥 工作流异步部署异常", ex);
                     return null;
-                });
+                })
+                .thenCompose(ignored -> warmupService.warmUpAsync());
 
         log.info("⏳ 工作流部署任务已提交到异步线程池，主线程继续执行...");
     }
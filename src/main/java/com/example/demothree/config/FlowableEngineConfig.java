@@ -0,0 +1,34 @@
+package com.example.demothree.config;
+
+import com.example.demothree.flowable.listener.AsyncJobMetricsListener;
+import com.example.demothree.flowable.listener.ProgressSnapshotEventListener;
+import lombok.RequiredArgsConstructor;
+import org.flowable.common.engine.api.delegate.event.FlowableEventListener;
+import org.flowable.spring.SpringProcessEngineConfiguration;
+import org.flowable.spring.boot.EngineConfigurationConfigurer;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Flowable 引擎扩展配置
+ */
+@Configuration
+@RequiredArgsConstructor
+public class FlowableEngineConfig implements EngineConfigurationConfigurer<SpringProcessEngineConfiguration> {
+
+    private final ProgressSnapshotEventListener progressSnapshotEventListener;
+    private final AsyncJobMetricsListener asyncJobMetricsListener;
+
+    @Override
+    public void configure(SpringProcessEngineConfiguration configuration) {
+        List<FlowableEventListener> eventListeners = new ArrayList<>();
+        if (configuration.getEventListeners() != null) {
+            eventListeners.addAll(configuration.getEventListeners());
+        }
+        eventListeners.add(progressSnapshotEventListener);
+        eventListeners.add(asyncJobMetricsListener);
+        configuration.setEventListeners(eventListeners);
+    }
+}
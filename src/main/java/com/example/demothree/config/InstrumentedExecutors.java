@@ -0,0 +1,98 @@
+package com.example.demothree.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 按配置创建带监控的线程池
+ * <p>
+ * 每个线程池上报：executor.queued / executor.active / executor.pool.size 等（Micrometer 线程池指标），
+ * workflow.executor.rejected（被拒绝的任务数）、workflow.executor.task.latency（从提交到执行完成的耗时，含排队时间），
+ * 均以 name 标签区分线程池。
+ */
+@Slf4j
+public final class InstrumentedExecutors {
+
+    private InstrumentedExecutors() {
+    }
+
+    public static ThreadPoolTaskExecutor create(String name, String threadNamePrefix,
+                                                WorkflowProperties.ExecutorProfile profile, MeterRegistry registry) {
+        if (profile.isVirtualThreads()) {
+            log.warn("线程池 {} 配置了虚拟线程，当前运行时为 Java {}，不支持虚拟线程，使用平台线程",
+                    name, Runtime.version().feature());
+        }
+
+        int corePoolSize = profile.getCorePoolSize() > 0
+                ? profile.getCorePoolSize() : Runtime.getRuntime().availableProcessors();
+        int maxPoolSize = Math.max(corePoolSize, profile.getMaxPoolSize());
+        Tags tags = Tags.of("name", name);
+        Counter rejected = Counter.builder("workflow.executor.rejected")
+                .description("线程池拒绝的任务数")
+                .tags(tags)
+                .register(registry);
+        Timer latency = Timer.builder("workflow.executor.task.latency")
+                .description("任务从提交到执行完成的耗时（含排队）")
+                .tags(tags)
+                .register(registry);
+
+        // 由 Spring 在 afterPropertiesSet 时初始化线程池，之后再绑定线程池指标，
+        // 使 @Bean 方法返回后追加的配置（如关闭等待）生效
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor() {
+            @Override
+            protected ExecutorService initializeExecutor(ThreadFactory threadFactory,
+                                                         RejectedExecutionHandler rejectedExecutionHandler) {
+                ExecutorService executorService = super.initializeExecutor(threadFactory, rejectedExecutionHandler);
+                new ExecutorServiceMetrics(executorService, name, Tags.empty()).bindTo(registry);
+                return executorService;
+            }
+        };
+        executor.setCorePoolSize(corePoolSize);
+        executor.setMaxPoolSize(maxPoolSize);
+        executor.setQueueCapacity(profile.getQueueCapacity());
+        executor.setKeepAliveSeconds(profile.getKeepAliveSeconds());
+        executor.setThreadNamePrefix(threadNamePrefix);
+        executor.setRejectedExecutionHandler(countingHandler(rejectionHandler(profile.getRejectionPolicy()), rejected));
+        executor.setTaskDecorator(task -> {
+            long submittedAt = System.nanoTime();
+            return () -> {
+                try {
+                    task.run();
+                } finally {
+                    latency.record(System.nanoTime() - submittedAt, TimeUnit.NANOSECONDS);
+                }
+            };
+        });
+        return executor;
+    }
+
+    private static RejectedExecutionHandler rejectionHandler(WorkflowProperties.RejectionPolicy policy) {
+        if (policy == null) {
+            return new ThreadPoolExecutor.AbortPolicy();
+        }
+        return switch (policy) {
+            case CALLER_RUNS -> new ThreadPoolExecutor.CallerRunsPolicy();
+            case DISCARD -> new ThreadPoolExecutor.DiscardPolicy();
+            case DISCARD_OLDEST -> new ThreadPoolExecutor.DiscardOldestPolicy();
+            case ABORT -> new ThreadPoolExecutor.AbortPolicy();
+        };
+    }
+
+    private static RejectedExecutionHandler countingHandler(RejectedExecutionHandler delegate, Counter rejected) {
+        return (runnable, executor) -> {
+            rejected.increment();
+            delegate.rejectedExecution(runnable, executor);
+        };
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.demothree.config;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Spring MVC 配置
+ * <p>
+ * 应用自定义了线程池后 Spring Boot 不再创建 applicationTaskExecutor，MVC 异步请求会退回到
+ * 每个请求新建线程的 SimpleAsyncTaskExecutor，这里显式指定有界线程池
+ */
+@Configuration
+@RequiredArgsConstructor
+public class WebMvcConfig implements WebMvcConfigurer {
+
+    @Qualifier("mvcAsyncExecutor")
+    private final ThreadPoolTaskExecutor mvcAsyncExecutor;
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(mvcAsyncExecutor);
+    }
+}
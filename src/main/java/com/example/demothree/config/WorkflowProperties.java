@@ -0,0 +1,257 @@
+package com.example.demothree.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 工作流扩展配置
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "workflow")
+public class WorkflowProperties {
+
+    private DefinitionCache definitionCache = new DefinitionCache();
+    private ProgressSnapshot progressSnapshot = new ProgressSnapshot();
+    private ProgressStream progressStream = new ProgressStream();
+    private Deploy deploy = new Deploy();
+    private Warmup warmup = new Warmup();
+    private Cleanup cleanup = new Cleanup();
+    private BulkTask bulkTask = new BulkTask();
+    private BulkStart bulkStart = new BulkStart();
+    private AsyncExecutor asyncExecutor = new AsyncExecutor();
+    private Executors executors = new Executors();
+
+    @Data
+    public static class DefinitionCache {
+        /**
+         * 每类索引（按ID、按key最新版本）的最大缓存条目数
+         */
+        private int maxSize = 1000;
+    }
+
+    @Data
+    public static class ProgressSnapshot {
+        /**
+         * 是否由流程事件维护进度快照
+         */
+        private boolean enabled = true;
+        /**
+         * 内存中保留的快照数
+         */
+        private int cacheSize = 10000;
+    }
+
+    @Data
+    public static class ProgressStream {
+        /**
+         * SSE 连接超时时间（毫秒）
+         */
+        private long timeout = 30 * 60 * 1000L;
+        /**
+         * 心跳间隔（秒）
+         */
+        private int heartbeatSeconds = 15;
+    }
+
+    @Data
+    public static class Deploy {
+        private Checksum checksum = new Checksum();
+        private Watch watch = new Watch();
+    }
+
+    @Data
+    public static class Watch {
+        /**
+         * 是否监听流程文件目录并自动部署变更（开发/运维模式）
+         */
+        private boolean enabled = false;
+        /**
+         * 监听的目录
+         */
+        private String directory = "src/main/resources/processes";
+        /**
+         * 防抖时间（毫秒），目录在该时间内无新变化后才部署
+         */
+        private long debounceMillis = 300;
+    }
+
+    @Data
+    public static class Checksum {
+        /**
+         * 摘要算法（JDK MessageDigest 名称），MD5 且不规范化时与旧格式兼容
+         */
+        private String algorithm = "SHA-256";
+        /**
+         * 是否规范化后再计算：忽略 BPMN-DI 布局、注释、空白与属性顺序
+         */
+        private boolean canonical = false;
+    }
+
+    @Data
+    public static class Warmup {
+        /**
+         * 预热失败后首次重试的等待时间（秒），之后每次翻倍
+         */
+        private int retryInitialSeconds = 5;
+        /**
+         * 重试等待时间上限（秒）
+         */
+        private int retryMaxSeconds = 300;
+    }
+
+    @Data
+    public static class Cleanup {
+        /**
+         * 每批处理的流程定义数，每批结束后记录进度
+         */
+        private int batchSize = 20;
+        /**
+         * 每秒最多删除的部署数，小于等于 0 不限速
+         */
+        private double deletionsPerSecond = 2;
+        /**
+         * 本节点标识，用于认领清理任务，为空时取主机名
+         */
+        private String nodeId;
+        /**
+         * 其他节点的任务超过该时间（秒）没有记录进度时视为已中断，可被本节点认领续跑
+         */
+        private int claimTimeoutSeconds = 300;
+    }
+
+    @Data
+    public static class BulkTask {
+        /**
+         * 每个事务处理的任务数，事务失败时该批逐个任务单独提交
+         */
+        private int chunkSize = 50;
+        /**
+         * 单次请求最多处理的任务数
+         */
+        private int maxTasks = 1000;
+    }
+
+    @Data
+    public static class BulkStart {
+        /**
+         * 每个事务发起的流程实例数
+         */
+        private int chunkSize = 200;
+        /**
+         * 同时提交的批次数，达到上限时暂停读取请求体
+         */
+        private int parallelism = 4;
+    }
+
+    /**
+     * Flowable 异步作业执行线程池（异步服务任务、定时器），获取与锁定参数见 flowable.process.async.executor
+     */
+    @Data
+    public static class AsyncExecutor {
+        /**
+         * 作业执行线程数
+         */
+        private int corePoolSize = 8;
+        private int maxPoolSize = 8;
+        /**
+         * 已获取待执行的作业队列长度，队列满时新获取的作业退回待获取
+         */
+        private int queueSize = 100;
+        /**
+         * 使用虚拟线程（需要 Java 21+，当前运行时不支持时忽略）
+         */
+        private boolean virtualThreads = false;
+        /**
+         * 作业积压指标的刷新间隔（秒）
+         */
+        private int metricsRefreshSeconds = 30;
+    }
+
+    /**
+     * 各类任务独立的线程池，互不挤占
+     */
+    @Data
+    public static class Executors {
+        /**
+         * 异步部署（@Async 默认线程池）
+         */
+        private ExecutorProfile deployment = new ExecutorProfile(2, 5, 100, RejectionPolicy.ABORT);
+        /**
+         * 部署流水线（读取、解析、校验和、预热），核心线程数默认取 CPU 核数
+         */
+        private ExecutorProfile pipeline = new ExecutorProfile(0, 0, 1000, RejectionPolicy.CALLER_RUNS);
+        /**
+         * 流程进度并发查询
+         */
+        private ExecutorProfile progress = new ExecutorProfile(8, 16, 200, RejectionPolicy.CALLER_RUNS);
+        /**
+         * 批量流程操作（批量部署、批量办理、批量发起）
+         */
+        private ExecutorProfile bulk = new ExecutorProfile(4, 8, 500, RejectionPolicy.CALLER_RUNS);
+        /**
+         * 旧版本部署清理，单线程依次执行
+         */
+        private ExecutorProfile cleanup = new ExecutorProfile(1, 1, 100, RejectionPolicy.ABORT);
+        /**
+         * 进度 SSE 推送，队列满时固定为拒绝（关闭连接），忽略配置的拒绝策略
+         */
+        private ExecutorProfile sse = new ExecutorProfile(4, 8, 1000, RejectionPolicy.ABORT);
+        /**
+         * Spring MVC 异步请求（StreamingResponseBody、Callable）
+         */
+        private ExecutorProfile mvcAsync = new ExecutorProfile(8, 32, 200, RejectionPolicy.ABORT);
+    }
+
+    @Data
+    public static class ExecutorProfile {
+        /**
+         * 核心线程数，小于等于 0 时取 CPU 核数
+         */
+        private int corePoolSize;
+        /**
+         * 最大线程数，小于核心线程数时取核心线程数
+         */
+        private int maxPoolSize;
+        private int queueCapacity;
+        private int keepAliveSeconds = 60;
+        /**
+         * 队列满后的拒绝策略
+         */
+        private RejectionPolicy rejectionPolicy;
+        /**
+         * 使用虚拟线程（需要 Java 21+，当前运行时不支持时忽略）
+         */
+        private boolean virtualThreads = false;
+
+        public ExecutorProfile() {
+        }
+
+        public ExecutorProfile(int corePoolSize, int maxPoolSize, int queueCapacity, RejectionPolicy rejectionPolicy) {
+            this.corePoolSize = corePoolSize;
+            this.maxPoolSize = maxPoolSize;
+            this.queueCapacity = queueCapacity;
+            this.rejectionPolicy = rejectionPolicy;
+        }
+    }
+
+    public enum RejectionPolicy {
+        /**
+         * 由提交任务的线程执行，形成背压
+         */
+        CALLER_RUNS,
+        /**
+         * 抛出 RejectedExecutionException
+         */
+        ABORT,
+        /**
+         * 丢弃新任务
+         */
+        DISCARD,
+        /**
+         * 丢弃队列中最旧的任务
+         */
+        DISCARD_OLDEST
+    }
+}
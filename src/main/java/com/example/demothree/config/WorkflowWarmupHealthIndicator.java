@@ -0,0 +1,29 @@
+package com.example.demothree.config;
+
+import com.example.demothree.flowable.service.ProcessWarmupService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * 流程部署与预热状态（健康检查名称 workflowWarmup，已加入 readiness 分组）
+ * <p>
+ * 部分流程定义预热失败（DEGRADED）时仍视为就绪，详情中列出失败的流程定义
+ */
+@Component
+@RequiredArgsConstructor
+public class WorkflowWarmupHealthIndicator implements HealthIndicator {
+
+    private final ProcessWarmupService warmupService;
+
+    @Override
+    public Health health() {
+        ProcessWarmupService.State state = warmupService.getState();
+        boolean ready = state == ProcessWarmupService.State.READY || state == ProcessWarmupService.State.DEGRADED;
+        Health.Builder builder = ready ? Health.up() : Health.outOfService();
+        return builder.withDetail("state", state)
+                .withDetails(warmupService.getDetails())
+                .build();
+    }
+}
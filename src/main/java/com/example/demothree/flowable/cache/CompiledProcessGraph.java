@@ -0,0 +1,216 @@
+package com.example.demothree.flowable.cache;
+
+import org.flowable.bpmn.model.BpmnModel;
+import org.flowable.bpmn.model.EndEvent;
+import org.flowable.bpmn.model.FlowElement;
+import org.flowable.bpmn.model.FlowElementsContainer;
+import org.flowable.bpmn.model.FlowNode;
+import org.flowable.bpmn.model.SequenceFlow;
+import org.flowable.bpmn.model.StartEvent;
+import org.flowable.bpmn.model.SubProcess;
+
+import java.util.*;
+
+/**
+ * 预编译的流程图：记录每个节点到流程结束的最短/最长剩余路径长度（含节点自身）
+ * <p>
+ * 子流程按其内部最长/最短路径计入权重，内部节点的剩余长度再叠加子流程之后的部分；
+ * 回边（循环）在最长路径计算中忽略。进度百分比 = (起点期望长度 - 当前节点期望剩余) / 起点期望长度，
+ * 期望长度取最短与最长的平均值，多个活动节点并行时取最慢的分支。
+ */
+public class CompiledProcessGraph {
+
+    private final String processDefinitionId;
+    private final Map<String, int[]> remaining;
+    private final int startMin;
+    private final int startMax;
+
+    private CompiledProcessGraph(String processDefinitionId, Map<String, int[]> remaining, int startMin, int startMax) {
+        this.processDefinitionId = processDefinitionId;
+        this.remaining = remaining;
+        this.startMin = startMin;
+        this.startMax = startMax;
+    }
+
+    /**
+     * 由 BpmnModel 编译
+     */
+    public static CompiledProcessGraph compile(String processDefinitionId, BpmnModel bpmnModel) {
+        Map<String, int[]> remaining = new HashMap<>();
+        int[] start = compileScope(bpmnModel.getMainProcess(), remaining);
+        return new CompiledProcessGraph(processDefinitionId, Collections.unmodifiableMap(remaining), start[0], start[1]);
+    }
+
+    public String getProcessDefinitionId() {
+        return processDefinitionId;
+    }
+
+    /**
+     * 节点剩余路径长度 {最短, 最长}，未知节点返回 null
+     */
+    public int[] getRemaining(String activityId) {
+        int[] value = remaining.get(activityId);
+        return value != null ? value.clone() : null;
+    }
+
+    /**
+     * 根据当前活动节点计算进度百分比（运行中最多99），无法识别任何活动节点时返回 -1
+     */
+    public int percentage(Collection<String> activeActivityIds) {
+        double total = (startMin + startMax) / 2.0;
+        double slowest = -1;
+        for (String activityId : activeActivityIds) {
+            int[] value = remaining.get(activityId);
+            if (value != null) {
+                slowest = Math.max(slowest, (value[0] + value[1]) / 2.0);
+            }
+        }
+        if (slowest < 0 || total <= 0) {
+            return -1;
+        }
+        int percentage = (int) ((total - slowest) * 100 / total);
+        return Math.max(0, Math.min(99, percentage));
+    }
+
+    /**
+     * 编译一个作用域（流程或子流程），节点剩余长度相对该作用域结束计算；返回起点的 {最短, 最长}
+     */
+    private static int[] compileScope(FlowElementsContainer scope, Map<String, int[]> out) {
+        Map<String, FlowNode> nodes = new LinkedHashMap<>();
+        for (FlowElement element : scope.getFlowElements()) {
+            if (element instanceof FlowNode flowNode) {
+                nodes.put(flowNode.getId(), flowNode);
+            }
+        }
+
+        // 子流程先编译内部，其起点长度即为该子流程节点自身的权重
+        Map<String, int[]> weights = new HashMap<>();
+        Map<String, Map<String, int[]>> innerScopes = new HashMap<>();
+        for (FlowNode node : nodes.values()) {
+            if (node instanceof SubProcess subProcess) {
+                Map<String, int[]> inner = new HashMap<>();
+                int[] innerStart = compileScope(subProcess, inner);
+                weights.put(node.getId(), new int[]{1 + innerStart[0], 1 + innerStart[1]});
+                innerScopes.put(node.getId(), inner);
+            } else {
+                weights.put(node.getId(), new int[]{1, 1});
+            }
+        }
+
+        Map<String, Integer> min = shortestRemaining(nodes, weights);
+        Map<String, Integer> max = new HashMap<>();
+        for (String id : nodes.keySet()) {
+            longestRemaining(id, nodes, weights, max, new HashSet<>());
+        }
+
+        for (String id : nodes.keySet()) {
+            int[] value = {min.get(id), max.get(id)};
+            out.put(id, value);
+
+            Map<String, int[]> inner = innerScopes.get(id);
+            if (inner != null) {
+                // 子流程内部节点 = 内部剩余 + 子流程之后的剩余
+                int afterMin = value[0] - weights.get(id)[0];
+                int afterMax = value[1] - weights.get(id)[1];
+                inner.forEach((innerId, innerValue) ->
+                        out.put(innerId, new int[]{innerValue[0] + afterMin, innerValue[1] + afterMax}));
+            }
+        }
+
+        List<String> starts = new ArrayList<>();
+        for (FlowNode node : nodes.values()) {
+            if (node instanceof StartEvent) {
+                starts.add(node.getId());
+            }
+        }
+        if (starts.isEmpty()) {
+            for (FlowNode node : nodes.values()) {
+                if (node.getIncomingFlows().isEmpty()) {
+                    starts.add(node.getId());
+                }
+            }
+        }
+
+        int startMin = Integer.MAX_VALUE;
+        int startMax = 0;
+        for (String start : starts) {
+            startMin = Math.min(startMin, out.get(start)[0]);
+            startMax = Math.max(startMax, out.get(start)[1]);
+        }
+        return starts.isEmpty() ? new int[]{0, 0} : new int[]{startMin, startMax};
+    }
+
+    /**
+     * 最短剩余路径：反复松弛直到稳定（权重为正，最多 n 轮）
+     */
+    private static Map<String, Integer> shortestRemaining(Map<String, FlowNode> nodes, Map<String, int[]> weights) {
+        Map<String, Integer> min = new HashMap<>();
+        for (FlowNode node : nodes.values()) {
+            min.put(node.getId(), isTerminal(node, nodes) ? weights.get(node.getId())[0] : Integer.MAX_VALUE);
+        }
+
+        boolean changed = true;
+        for (int round = 0; changed && round < nodes.size(); round++) {
+            changed = false;
+            for (FlowNode node : nodes.values()) {
+                if (isTerminal(node, nodes)) {
+                    continue;
+                }
+                int best = Integer.MAX_VALUE;
+                for (String target : targets(node, nodes)) {
+                    best = Math.min(best, min.get(target));
+                }
+                if (best != Integer.MAX_VALUE) {
+                    int candidate = best + weights.get(node.getId())[0];
+                    if (candidate < min.get(node.getId())) {
+                        min.put(node.getId(), candidate);
+                        changed = true;
+                    }
+                }
+            }
+        }
+
+        // 无法到达结束的节点（死循环）只计自身
+        min.replaceAll((id, value) -> value == Integer.MAX_VALUE ? weights.get(id)[0] : value);
+        return min;
+    }
+
+    /**
+     * 最长剩余路径：深度优先 + 备忘，忽略指向当前路径上节点的回边
+     */
+    private static int longestRemaining(String id, Map<String, FlowNode> nodes, Map<String, int[]> weights,
+                                        Map<String, Integer> memo, Set<String> onPath) {
+        Integer cached = memo.get(id);
+        if (cached != null) {
+            return cached;
+        }
+        FlowNode node = nodes.get(id);
+        int longest = 0;
+        if (!isTerminal(node, nodes)) {
+            onPath.add(id);
+            for (String target : targets(node, nodes)) {
+                if (!onPath.contains(target)) {
+                    longest = Math.max(longest, longestRemaining(target, nodes, weights, memo, onPath));
+                }
+            }
+            onPath.remove(id);
+        }
+        int value = longest + weights.get(id)[1];
+        memo.put(id, value);
+        return value;
+    }
+
+    private static boolean isTerminal(FlowNode node, Map<String, FlowNode> nodes) {
+        return node instanceof EndEvent || targets(node, nodes).isEmpty();
+    }
+
+    private static List<String> targets(FlowNode node, Map<String, FlowNode> nodes) {
+        List<String> targets = new ArrayList<>(node.getOutgoingFlows().size());
+        for (SequenceFlow flow : node.getOutgoingFlows()) {
+            if (nodes.containsKey(flow.getTargetRef()) && !flow.getTargetRef().equals(node.getId())) {
+                targets.add(flow.getTargetRef());
+            }
+        }
+        return targets;
+    }
+}
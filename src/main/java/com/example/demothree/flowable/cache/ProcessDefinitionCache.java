@@ -0,0 +1,181 @@
+package com.example.demothree.flowable.cache;
+
+import cn.hutool.core.collection.CollUtil;
+import com.example.demothree.config.WorkflowProperties;
+import com.example.demothree.flowable.dto.ProcessDefinitionBrief;
+import com.example.demothree.flowable.mapper.ProcessProgressMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.flowable.engine.RepositoryService;
+import org.flowable.engine.repository.ProcessDefinition;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 流程定义元数据缓存（进程内，LRU淘汰）
+ * <p>
+ * 按 processDefinitionId 与 key+最新版本 两类索引缓存名称、版本等几乎不变的信息，
+ * 部署新版本与清理旧部署时失效对应条目。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ProcessDefinitionCache {
+
+    private static final int IN_CLAUSE_BATCH_SIZE = 500;
+
+    private final RepositoryService repositoryService;
+    private final ProcessProgressMapper progressMapper;
+    private final WorkflowProperties workflowProperties;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    private Map<String, ProcessDefinitionBrief> byId;
+    private Map<String, ProcessDefinitionBrief> latestByKey;
+
+    @PostConstruct
+    public void init() {
+        int maxSize = workflowProperties.getDefinitionCache().getMaxSize();
+        byId = newLruMap(maxSize);
+        latestByKey = newLruMap(maxSize);
+    }
+
+    /**
+     * 按流程定义ID获取
+     */
+    public ProcessDefinitionBrief getById(String processDefinitionId) {
+        ProcessDefinitionBrief cached = byId.get(processDefinitionId);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+
+        List<ProcessDefinitionBrief> loaded = progressMapper.selectDefinitions(Collections.singletonList(processDefinitionId));
+        if (loaded.isEmpty()) {
+            return null;
+        }
+        ProcessDefinitionBrief definition = loaded.get(0);
+        byId.put(definition.getId(), definition);
+        return definition;
+    }
+
+    /**
+     * 批量按流程定义ID获取，未命中的部分合并为一次 IN 查询
+     */
+    public Map<String, ProcessDefinitionBrief> getByIds(Collection<String> processDefinitionIds) {
+        Map<String, ProcessDefinitionBrief> result = new HashMap<>();
+        List<String> missing = new ArrayList<>();
+        for (String id : processDefinitionIds) {
+            ProcessDefinitionBrief cached = byId.get(id);
+            if (cached != null) {
+                hits.increment();
+                result.put(id, cached);
+            } else {
+                misses.increment();
+                missing.add(id);
+            }
+        }
+
+        for (List<String> chunk : CollUtil.split(missing, IN_CLAUSE_BATCH_SIZE)) {
+            for (ProcessDefinitionBrief definition : progressMapper.selectDefinitions(chunk)) {
+                byId.put(definition.getId(), definition);
+                result.put(definition.getId(), definition);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 按流程key获取最新版本
+     */
+    public ProcessDefinitionBrief getLatestByKey(String processKey) {
+        ProcessDefinitionBrief cached = latestByKey.get(processKey);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+
+        ProcessDefinition latest = repositoryService.createProcessDefinitionQuery()
+                .processDefinitionKey(processKey)
+                .latestVersion()
+                .singleResult();
+        if (latest == null) {
+            return null;
+        }
+        return putLatest(latest);
+    }
+
+    /**
+     * 写入最新版本（部署完成、启动预热时调用）
+     */
+    public ProcessDefinitionBrief putLatest(ProcessDefinition processDefinition) {
+        ProcessDefinitionBrief definition = ProcessDefinitionBrief.of(processDefinition);
+        byId.put(definition.getId(), definition);
+        latestByKey.put(definition.getKey(), definition);
+        return definition;
+    }
+
+    /**
+     * 失效某个key的最新版本索引（部署新版本后调用）
+     */
+    public void evictLatest(String processKey) {
+        latestByKey.remove(processKey);
+    }
+
+    /**
+     * 失效某个流程定义（删除部署后调用）
+     */
+    public void evictDefinition(String processDefinitionId) {
+        ProcessDefinitionBrief removed = byId.remove(processDefinitionId);
+        if (removed != null) {
+            latestByKey.remove(removed.getKey());
+        }
+    }
+
+    /**
+     * 清空缓存
+     */
+    public void invalidateAll() {
+        byId.clear();
+        latestByKey.clear();
+    }
+
+    /**
+     * 缓存命中统计
+     */
+    public Map<String, Object> getStats() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long total = hitCount + missCount;
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("hitRate", total > 0 ? (double) hitCount / total : 0D);
+        stats.put("evictions", evictions.sum());
+        stats.put("byIdSize", byId.size());
+        stats.put("latestByKeySize", latestByKey.size());
+        stats.put("maxSize", workflowProperties.getDefinitionCache().getMaxSize());
+        return stats;
+    }
+
+    private Map<String, ProcessDefinitionBrief> newLruMap(int maxSize) {
+        return Collections.synchronizedMap(new LinkedHashMap<String, ProcessDefinitionBrief>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, ProcessDefinitionBrief> eldest) {
+                if (size() > maxSize) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        });
+    }
+}
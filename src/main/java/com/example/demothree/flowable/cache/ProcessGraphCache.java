@@ -0,0 +1,71 @@
+package com.example.demothree.flowable.cache;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.flowable.bpmn.model.BpmnModel;
+import org.flowable.engine.RepositoryService;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 预编译流程图缓存（按流程定义ID）
+ * <p>
+ * 部署时编译，查询时未命中再按需编译；流程定义不可变，只有删除部署时才需要失效。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ProcessGraphCache {
+
+    private final RepositoryService repositoryService;
+
+    private final Map<String, CompiledProcessGraph> graphs = new ConcurrentHashMap<>();
+
+    /**
+     * 获取流程图，未编译时编译并缓存
+     */
+    public CompiledProcessGraph get(String processDefinitionId) {
+        return graphs.computeIfAbsent(processDefinitionId, this::doCompile);
+    }
+
+    /**
+     * 部署后预编译
+     */
+    public void compile(String processDefinitionId) {
+        graphs.put(processDefinitionId, doCompile(processDefinitionId));
+    }
+
+    /**
+     * 根据当前活动节点计算进度百分比，无法计算时返回 -1
+     */
+    public int percentage(String processDefinitionId, Collection<String> activeActivityIds) {
+        if (processDefinitionId == null || activeActivityIds.isEmpty()) {
+            return -1;
+        }
+        try {
+            return get(processDefinitionId).percentage(activeActivityIds);
+        } catch (RuntimeException e) {
+            log.warn("流程图编译失败: {}", processDefinitionId, e);
+            return -1;
+        }
+    }
+
+    public void evict(String processDefinitionId) {
+        graphs.remove(processDefinitionId);
+    }
+
+    public int size() {
+        return graphs.size();
+    }
+
+    private CompiledProcessGraph doCompile(String processDefinitionId) {
+        BpmnModel bpmnModel = repositoryService.getBpmnModel(processDefinitionId);
+        if (bpmnModel == null || bpmnModel.getMainProcess() == null) {
+            throw new IllegalStateException("流程定义不存在: " + processDefinitionId);
+        }
+        return CompiledProcessGraph.compile(processDefinitionId, bpmnModel);
+    }
+}
@@ -0,0 +1,309 @@
+package com.example.demothree.flowable.cache;
+
+import cn.hutool.core.collection.CollUtil;
+import com.example.demothree.config.WorkflowProperties;
+import com.example.demothree.flowable.dto.CurrentTaskInfo;
+import com.example.demothree.flowable.entity.ProgressSnapshot;
+import com.example.demothree.flowable.mapper.ProgressSnapshotMapper;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * 流程进度快照存储：数据库表 + 内存LRU
+ * <p>
+ * 缓存中的快照对读者只读，更新时复制一份修改后整体替换；
+ * 引擎事务内的多次事件更新合并为一次写表，事务提交后才替换内存中的快照，回滚则全部丢弃。
+ * 写表按读取时的修订号做乐观校验：并发事务已改过同一快照时删除该快照，由下一次读取全量重建。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ProgressSnapshotStore {
+
+    private static final int LOCK_STRIPES = 64;
+
+    private static final TypeReference<List<CurrentTaskInfo>> TASK_LIST_TYPE = new TypeReference<>() {
+    };
+    private static final TypeReference<LinkedHashMap<String, String>> NODE_STATUS_TYPE = new TypeReference<>() {
+    };
+
+    private final ProgressSnapshotMapper snapshotMapper;
+    private final WorkflowProperties workflowProperties;
+    private final ObjectMapper objectMapper;
+
+    private final Object[] locks = new Object[LOCK_STRIPES];
+    private Map<String, ProgressSnapshot> cache;
+
+    @PostConstruct
+    public void init() {
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new Object();
+        }
+        int cacheSize = workflowProperties.getProgressSnapshot().getCacheSize();
+        cache = Collections.synchronizedMap(new LinkedHashMap<String, ProgressSnapshot>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, ProgressSnapshot> eldest) {
+                return size() > cacheSize;
+            }
+        });
+    }
+
+    public boolean isEnabled() {
+        return workflowProperties.getProgressSnapshot().isEnabled();
+    }
+
+    /**
+     * 获取快照，内存未命中时从表中加载，不存在返回 null
+     */
+    public ProgressSnapshot get(String processInstanceId) {
+        if (!isEnabled()) {
+            return null;
+        }
+        ProgressSnapshot snapshot = cache.get(processInstanceId);
+        if (snapshot != null) {
+            return snapshot;
+        }
+
+        snapshot = snapshotMapper.selectById(processInstanceId);
+        if (snapshot == null) {
+            return null;
+        }
+        readJson(snapshot);
+        cache.put(processInstanceId, snapshot);
+        return snapshot;
+    }
+
+    /**
+     * 获取当前事务即将提交的快照（本事务暂存的修改），没有暂存时返回已提交的快照
+     * <p>
+     * 在提交后回调中调用时得到的是本事务提交的值，不受之后其他事务修改的影响。
+     */
+    public ProgressSnapshot getCurrent(String processInstanceId) {
+        if (!isEnabled()) {
+            return null;
+        }
+        // 只读取已绑定的暂存，不在此注册事务回调（提交后回调中注册的回调不会再被执行）
+        Map<String, ProgressSnapshot> pending = TransactionSynchronizationManager.isSynchronizationActive()
+                ? boundWrites() : null;
+        ProgressSnapshot staged = pending != null ? pending.get(processInstanceId) : null;
+        return staged != null ? staged : get(processInstanceId);
+    }
+
+    /**
+     * 批量获取快照，内存未命中的按批从表中加载，结果只包含存在快照的流程实例
+     */
+    public Map<String, ProgressSnapshot> getAll(Collection<String> processInstanceIds, int batchSize) {
+        Map<String, ProgressSnapshot> result = new HashMap<>();
+        if (!isEnabled() || processInstanceIds.isEmpty()) {
+            return result;
+        }
+
+        List<String> missingIds = new ArrayList<>();
+        for (String processInstanceId : processInstanceIds) {
+            ProgressSnapshot snapshot = cache.get(processInstanceId);
+            if (snapshot != null) {
+                result.put(processInstanceId, snapshot);
+            } else {
+                missingIds.add(processInstanceId);
+            }
+        }
+
+        for (List<String> chunk : CollUtil.split(missingIds, batchSize)) {
+            for (ProgressSnapshot snapshot : snapshotMapper.selectBatchIds(chunk)) {
+                readJson(snapshot);
+                cache.put(snapshot.getProcessInstanceId(), snapshot);
+                result.put(snapshot.getProcessInstanceId(), snapshot);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 保存完整快照（流程启动、全量重建后调用）
+     */
+    public void save(ProgressSnapshot snapshot) {
+        if (!isEnabled()) {
+            return;
+        }
+        synchronized (lockFor(snapshot.getProcessInstanceId())) {
+            // 同一事务内已暂存过时沿用其期望修订号，否则按新快照插入
+            Map<String, ProgressSnapshot> pending = pendingWrites();
+            ProgressSnapshot staged = pending != null ? pending.get(snapshot.getProcessInstanceId()) : null;
+            snapshot.setBaseRevision(staged != null ? staged.getBaseRevision() : null);
+            snapshot.setLastUpdated(new Date());
+            stage(snapshot);
+        }
+    }
+
+    /**
+     * 增量更新快照，快照不存在时忽略（等待下一次全量重建补齐）
+     */
+    public void update(String processInstanceId, Consumer<ProgressSnapshot> mutator) {
+        if (!isEnabled() || processInstanceId == null) {
+            return;
+        }
+        synchronized (lockFor(processInstanceId)) {
+            Map<String, ProgressSnapshot> pending = pendingWrites();
+            boolean staged = pending != null && pending.containsKey(processInstanceId);
+            ProgressSnapshot current = staged ? pending.get(processInstanceId) : get(processInstanceId);
+            if (current == null) {
+                return;
+            }
+            ProgressSnapshot updated = current.copy();
+            mutator.accept(updated);
+            updated.setBaseRevision(staged ? current.getBaseRevision() : Long.valueOf(current.getRevision()));
+            updated.setRevision(current.getRevision() + 1);
+            updated.setLastUpdated(new Date());
+            stage(updated);
+        }
+    }
+
+    /**
+     * 仅递增修订号（快照外的数据发生变化，如流程变量）
+     */
+    public void touch(String processInstanceId) {
+        update(processInstanceId, snapshot -> {
+        });
+    }
+
+    /**
+     * 淘汰内存中的快照
+     */
+    public void evict(String processInstanceId) {
+        cache.remove(processInstanceId);
+    }
+
+    /**
+     * 事务内的更新先暂存，提交前每个流程实例只写一次表，提交后才对读者可见；无事务时直接写入
+     */
+    private void stage(ProgressSnapshot snapshot) {
+        Map<String, ProgressSnapshot> pending = pendingWrites();
+        if (pending != null) {
+            pending.put(snapshot.getProcessInstanceId(), snapshot);
+            return;
+        }
+        if (write(snapshot)) {
+            cache.put(snapshot.getProcessInstanceId(), snapshot);
+        } else {
+            evict(snapshot.getProcessInstanceId());
+        }
+    }
+
+    /**
+     * 写表：新快照插入，已有快照按期望修订号更新。
+     * 主键冲突或修订号不符说明并发事务已写过该快照，此时删除表中快照，返回 false；
+     * 写表异常同样删除快照并返回 false，快照只是旁路缓存，不能因其失败回滚引擎事务
+     */
+    private boolean write(ProgressSnapshot snapshot) {
+        String processInstanceId = snapshot.getProcessInstanceId();
+        boolean written;
+        try {
+            writeJson(snapshot);
+            if (snapshot.getBaseRevision() == null) {
+                try {
+                    written = snapshotMapper.insert(snapshot) > 0;
+                } catch (DuplicateKeyException e) {
+                    written = false;
+                }
+            } else {
+                written = snapshotMapper.updateIfRevision(snapshot) > 0;
+            }
+            if (!written) {
+                log.info("进度快照并发修改，删除后等待重建: {}", processInstanceId);
+            }
+        } catch (RuntimeException e) {
+            log.warn("写入进度快照失败，删除后等待重建: {}", processInstanceId, e);
+            written = false;
+        }
+        if (!written) {
+            try {
+                snapshotMapper.deleteById(processInstanceId);
+            } catch (RuntimeException e) {
+                log.warn("删除进度快照失败: {}", processInstanceId, e);
+            }
+        }
+        return written;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, ProgressSnapshot> boundWrites() {
+        return (Map<String, ProgressSnapshot>) TransactionSynchronizationManager.getResource(this);
+    }
+
+    private Map<String, ProgressSnapshot> pendingWrites() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return null;
+        }
+        Map<String, ProgressSnapshot> pending = boundWrites();
+        if (pending != null) {
+            return pending;
+        }
+
+        Map<String, ProgressSnapshot> writes = new LinkedHashMap<>();
+        Set<String> conflicts = new HashSet<>();
+        TransactionSynchronizationManager.bindResource(this, writes);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                Iterator<ProgressSnapshot> iterator = writes.values().iterator();
+                while (iterator.hasNext()) {
+                    ProgressSnapshot snapshot = iterator.next();
+                    if (!write(snapshot)) {
+                        // 冲突的快照不再作为本事务的提交值
+                        iterator.remove();
+                        conflicts.add(snapshot.getProcessInstanceId());
+                        evict(snapshot.getProcessInstanceId());
+                    }
+                }
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(ProgressSnapshotStore.this);
+                // 冲突的快照无论提交与否都不再可信
+                conflicts.forEach(ProgressSnapshotStore.this::evict);
+                if (status == STATUS_COMMITTED) {
+                    writes.values().forEach(snapshot -> cache.put(snapshot.getProcessInstanceId(), snapshot));
+                }
+            }
+        });
+        return writes;
+    }
+
+    private void writeJson(ProgressSnapshot snapshot) {
+        try {
+            snapshot.setCurrentTasks(objectMapper.writeValueAsString(snapshot.getCurrentTaskList()));
+            snapshot.setNodeStatus(objectMapper.writeValueAsString(snapshot.getNodeStatusMap()));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("进度快照序列化失败: " + snapshot.getProcessInstanceId(), e);
+        }
+    }
+
+    private void readJson(ProgressSnapshot snapshot) {
+        try {
+            if (snapshot.getCurrentTasks() != null) {
+                snapshot.setCurrentTaskList(objectMapper.readValue(snapshot.getCurrentTasks(), TASK_LIST_TYPE));
+            }
+            if (snapshot.getNodeStatus() != null) {
+                snapshot.setNodeStatusMap(objectMapper.readValue(snapshot.getNodeStatus(), NODE_STATUS_TYPE));
+            }
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("进度快照解析失败: " + snapshot.getProcessInstanceId(), e);
+        }
+    }
+
+    private Object lockFor(String processInstanceId) {
+        return locks[Math.floorMod(processInstanceId.hashCode(), LOCK_STRIPES)];
+    }
+}
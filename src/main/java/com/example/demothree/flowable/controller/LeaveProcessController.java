@@ -2,17 +2,14 @@ package com.example.demothree.flowable.controller;
 
 
 import cn.hutool.json.JSONUtil;
-import com.example.demothree.flowable.dto.TaskDto;
+import com.example.demothree.flowable.dto.KeysetPage;
+import com.example.demothree.flowable.dto.TaskInboxItem;
 import com.example.demothree.flowable.service.LeaveProcessService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.flowable.engine.runtime.ProcessInstance;
-import org.flowable.task.api.Task;
-import org.springframework.beans.BeanUtils;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -33,19 +30,15 @@ public class LeaveProcessController {
     }
 
     /**
-     * 获取用户待办任务
+     * 键集分页获取用户待办任务，下一页传入上一页返回的 nextCursor
      */
     @GetMapping("/tasks/{userId}")
-    public String getUserTasks(@PathVariable String userId) {
-        List<Task> userTasks = leaveProcessService.getUserTasks(userId);
-        List<TaskDto> taskDtos = new ArrayList<>();
-        for (Task task :userTasks) {
-            TaskDto taskDto = new TaskDto();
-            BeanUtils.copyProperties(task, taskDto);
-            taskDtos.add(taskDto);
-        }
-        log.info("用户待办任务：" + JSONUtil.toJsonStr(taskDtos));
-        return JSONUtil.toJsonStr(taskDtos);
+    public String getUserTasks(@PathVariable String userId,
+                               @RequestParam(required = false) String cursor,
+                               @RequestParam(defaultValue = "50") int size) {
+        KeysetPage<TaskInboxItem> page = leaveProcessService.getUserTasks(userId, cursor, size);
+        log.info("用户待办任务：{} 条", page.getItems().size());
+        return JSONUtil.toJsonStr(page);
     }
 
     /**
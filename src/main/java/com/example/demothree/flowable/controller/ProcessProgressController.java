@@ -1,31 +1,83 @@
 package com.example.demothree.flowable.controller;
 
+import com.example.demothree.flowable.dto.KeysetPage;
+import com.example.demothree.flowable.dto.ProgressField;
 import com.example.demothree.flowable.service.ProcessProgressService;
+import com.example.demothree.flowable.service.ProgressStreamService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/process/progress")
 @RequiredArgsConstructor
 public class ProcessProgressController {
 
+    private static final String NDJSON = "application/x-ndjson";
+
     private final ProcessProgressService progressService;
+    private final ProgressStreamService progressStreamService;
+    private final ObjectMapper objectMapper;
 
     /**
      * 获取流程进度详情
+     *
+     * @param fields    需要返回的字段，逗号分隔（basic,status,percentage,currentTasks,timeline,variables,duration），默认全部
+     * @param variables 只返回指定名称的流程变量
      */
     @GetMapping("/{processInstanceId}")
-    public ResponseEntity<?> getProcessProgress(@PathVariable String processInstanceId) {
+    public ResponseEntity<?> getProcessProgress(@PathVariable String processInstanceId,
+                                                @RequestParam(required = false) String fields,
+                                                @RequestParam(required = false) List<String> variables,
+                                                WebRequest webRequest) {
         try {
-            Map<String, Object> progress = progressService.getProcessProgress(processInstanceId);
-            return ResponseEntity.ok(progress);
+            Set<ProgressField> fieldSet = ProgressField.parse(fields);
+            String version = progressService.getProgressVersion(processInstanceId);
+            String eTag = version != null ? projectionTag(fields, fieldSet, variables) + version : null;
+            if (eTag != null && webRequest.checkNotModified(eTag)) {
+                return notModified(eTag);
+            }
+            Map<String, Object> progress = progressService.getProcessProgress(processInstanceId, fieldSet, variables);
+            return withETag(eTag).body(progress);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(Map.of(
+                    "error", e.getMessage(),
+                    "success", false
+            ));
+        }
+    }
+
+    /**
+     * 订阅流程进度（SSE），先推送一次完整进度，之后按引擎事件推送增量
+     */
+    @GetMapping("/{processInstanceId}/stream")
+    public ResponseEntity<?> streamProcessProgress(@PathVariable String processInstanceId) {
+        try {
+            SseEmitter emitter = progressStreamService.subscribe(processInstanceId);
+            return ResponseEntity.ok(emitter);
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body(Map.of(
                     "error", e.getMessage(),
@@ -50,13 +102,82 @@ public class ProcessProgressController {
         }
     }
 
+    /**
+     * 键集分页获取用户参与的流程进度
+     */
+    @GetMapping("/user/{userId}/page")
+    public ResponseEntity<?> getUserProcessProgressPage(@PathVariable String userId,
+                                                        @RequestParam(required = false) String cursor,
+                                                        @RequestParam(defaultValue = "50") int size) {
+        try {
+            KeysetPage<Map<String, Object>> page = progressService.getUserProcessProgressPage(userId, cursor, size);
+            return ResponseEntity.ok(page);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(Map.of(
+                    "error", e.getMessage(),
+                    "success", false
+            ));
+        }
+    }
+
+    /**
+     * 以 NDJSON 流式输出用户参与的流程进度（每行一个摘要，逐页刷新）
+     */
+    @GetMapping(value = "/user/{userId}/stream", produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> streamUserProcessProgress(@PathVariable String userId,
+                                                                           @RequestParam(defaultValue = "200") int batchSize) {
+        StreamingResponseBody body = outputStream -> {
+            try {
+                progressService.streamUserProcessProgress(userId, batchSize, page -> {
+                    try {
+                        for (Map<String, Object> summary : page) {
+                            outputStream.write(objectMapper.writeValueAsBytes(summary));
+                            outputStream.write('\n');
+                        }
+                        outputStream.flush();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(NDJSON))
+                .body(body);
+    }
+
     /**
      * 获取流程图形化进度
      */
     @GetMapping("/graphical/{processInstanceId}")
-    public ResponseEntity<?> getGraphicalProgress(@PathVariable String processInstanceId) {
+    public ResponseEntity<?> getGraphicalProgress(@PathVariable String processInstanceId,
+                                                  @RequestParam(defaultValue = "true") boolean withActivities,
+                                                  WebRequest webRequest) {
+        try {
+            String version = progressService.getProgressVersion(processInstanceId);
+            String eTag = version != null ? "graph-" + withActivities + "-" + version : null;
+            if (eTag != null && webRequest.checkNotModified(eTag)) {
+                return notModified(eTag);
+            }
+            Map<String, Object> progress = progressService.getGraphicalProgress(processInstanceId, withActivities);
+            return withETag(eTag).body(progress);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(Map.of(
+                    "error", e.getMessage(),
+                    "success", false
+            ));
+        }
+    }
+
+    /**
+     * 批量获取流程图进度，请求体为流程实例ID列表
+     */
+    @PostMapping("/graphical/batch")
+    public ResponseEntity<?> getGraphicalProgressBatch(@RequestBody List<String> processInstanceIds) {
         try {
-            Map<String, Object> progress = progressService.getGraphicalProgress(processInstanceId);
+            Map<String, Map<String, Object>> progress = progressService.getGraphicalProgressBatch(processInstanceIds);
             return ResponseEntity.ok(progress);
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body(Map.of(
@@ -66,4 +187,30 @@ public class ProcessProgressController {
         }
     }
 
-}
\ No newline at end of file
+    /**
+     * 带版本号的响应，要求客户端每次携带 If-None-Match 重新验证
+     */
+    private ResponseEntity.BodyBuilder withETag(String eTag) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok().cacheControl(CacheControl.noCache());
+        return eTag != null ? builder.eTag(eTag) : builder;
+    }
+
+    /**
+     * 不同字段投影的响应体不同，版本号前加上投影摘要；未指定投影时保持原版本号
+     */
+    private String projectionTag(String fields, Set<ProgressField> fieldSet, List<String> variables) {
+        if (fields == null && variables == null) {
+            return "";
+        }
+        String projection = fieldSet.stream().map(ProgressField::getCode).collect(Collectors.joining(","))
+                + "|" + (variables != null ? new TreeSet<>(variables) : "");
+        return "p" + DigestUtils.md5DigestAsHex(projection.getBytes(StandardCharsets.UTF_8)).substring(0, 8) + "-";
+    }
+
+    private ResponseEntity<?> notModified(String eTag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .cacheControl(CacheControl.noCache())
+                .eTag(eTag)
+                .build();
+    }
+}
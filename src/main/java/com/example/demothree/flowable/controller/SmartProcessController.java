@@ -1,5 +1,10 @@
 package com.example.demothree.flowable.controller;
 
+import com.example.demothree.flowable.cache.ProcessDefinitionCache;
+import com.example.demothree.flowable.dto.DeploymentOutcome;
+import com.example.demothree.flowable.entity.CleanupJob;
+import com.example.demothree.flowable.service.AsyncProcessDeploymentService;
+import com.example.demothree.flowable.service.DeploymentCleanupService;
 import com.example.demothree.flowable.service.SmartProcessDeploymentService;
 import org.flowable.engine.repository.Deployment;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -7,15 +12,32 @@ import org.springframework.web.bind.annotation.*;
 
 import java.io.IOException;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/process")
 public class SmartProcessController {
 
+    /**
+     * 批量部署最大并发数
+     */
+    private static final int MAX_DEPLOY_PARALLELISM = 16;
+
     @Autowired
     private SmartProcessDeploymentService smartDeploymentService;
 
+    @Autowired
+    private AsyncProcessDeploymentService asyncDeploymentService;
+
+    @Autowired
+    private ProcessDefinitionCache definitionCache;
+
+    @Autowired
+    private DeploymentCleanupService cleanupService;
+
     /**
      * 智能部署所有流程
      */
@@ -58,6 +80,26 @@ public class SmartProcessController {
         return result;
     }
 
+    /**
+     * 批量智能部署，请求体为流程文件名列表，返回每个文件的部署结果
+     */
+    @PostMapping("/deploy/smart/batch")
+    public Map<String, Object> deploySmartBatch(@RequestBody List<String> fileNames,
+                                                @RequestParam(defaultValue = "4") int parallelism,
+                                                @RequestParam(defaultValue = "120") int timeoutSeconds) {
+        List<DeploymentOutcome> outcomes = asyncDeploymentService.deployProcessesBulk(
+                fileNames, Math.min(Math.max(parallelism, 1), MAX_DEPLOY_PARALLELISM), timeoutSeconds * 1000L);
+
+        Map<String, Long> summary = outcomes.stream()
+                .collect(Collectors.groupingBy(DeploymentOutcome::getStatus, TreeMap::new, Collectors.counting()));
+        Map<String, Object> result = new HashMap<>();
+        result.put("success", !summary.containsKey(DeploymentOutcome.STATUS_FAILED)
+                && !summary.containsKey(DeploymentOutcome.STATUS_TIMEOUT));
+        result.put("summary", summary);
+        result.put("outcomes", outcomes);
+        return result;
+    }
+
     /**
      * 强制部署单个流程（忽略内容检查）
      */
@@ -81,11 +123,35 @@ public class SmartProcessController {
      */
     @PostMapping("/cleanup/{processKey}")
     public Map<String, Object> cleanupOldVersions(@PathVariable String processKey,
-                                                  @RequestParam(defaultValue = "3") int keepVersions) {
+                                                  @RequestParam(defaultValue = "3") int keepVersions,
+                                                  @RequestParam(defaultValue = "false") boolean dryRun) {
         Map<String, Object> result = new HashMap<>();
-        smartDeploymentService.cleanupOldDeployments(processKey, keepVersions);
-        result.put("success", true);
-        result.put("message", "清理完成，保留最近 " + keepVersions + " 个版本");
+        try {
+            CleanupJob job = cleanupService.submit(processKey, keepVersions, dryRun);
+            result.put("success", true);
+            result.put("jobId", job.getId());
+            result.put("totalCount", job.getTotalCount());
+            result.put("message", (dryRun ? "试运行任务已提交" : "清理任务已提交") + "，保留最近 " + keepVersions + " 个版本");
+        } catch (Exception e) {
+            result.put("success", false);
+            result.put("message", "提交清理任务失败: " + e.getMessage());
+        }
+        return result;
+    }
+
+    /**
+     * 查询清理任务进度
+     */
+    @GetMapping("/cleanup/jobs/{jobId}")
+    public Map<String, Object> getCleanupJob(@PathVariable Long jobId) {
+        Map<String, Object> result = new HashMap<>();
+        try {
+            result.put("success", true);
+            result.put("job", cleanupService.getJob(jobId));
+        } catch (Exception e) {
+            result.put("success", false);
+            result.put("message", e.getMessage());
+        }
         return result;
     }
 
@@ -101,4 +167,24 @@ public class SmartProcessController {
         result.put("exists", checksum != null);
         return result;
     }
+
+    /**
+     * 获取流程定义缓存统计
+     */
+    @GetMapping("/definition-cache/stats")
+    public Map<String, Object> getDefinitionCacheStats() {
+        return definitionCache.getStats();
+    }
+
+    /**
+     * 清空流程定义缓存
+     */
+    @PostMapping("/definition-cache/clear")
+    public Map<String, Object> clearDefinitionCache() {
+        definitionCache.invalidateAll();
+        Map<String, Object> result = new HashMap<>();
+        result.put("success", true);
+        result.put("message", "流程定义缓存已清空");
+        return result;
+    }
 }
\ No newline at end of file
@@ -1,14 +1,22 @@
 package com.example.demothree.flowable.controller;
 
 import cn.hutool.json.JSONUtil;
+import com.example.demothree.flowable.dto.BulkTaskItem;
+import com.example.demothree.flowable.dto.TaskOperationResult;
+import com.example.demothree.flowable.entity.BulkStartJob;
+import com.example.demothree.flowable.service.BulkProcessStartService;
+import com.example.demothree.flowable.service.BulkTaskService;
+import com.example.demothree.flowable.service.TaskInboxService;
 import com.example.demothree.flowable.service.WorkflowService;
 import lombok.extern.slf4j.Slf4j;
 import org.flowable.engine.runtime.ProcessInstance;
 import org.flowable.task.api.Task;
 import org.flowable.task.api.history.HistoricTaskInstance;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.InputStream;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -21,6 +29,15 @@ public class WorkflowController {
     @Autowired
     private WorkflowService workflowService;
 
+    @Autowired
+    private TaskInboxService taskInboxService;
+
+    @Autowired
+    private BulkTaskService bulkTaskService;
+
+    @Autowired
+    private BulkProcessStartService bulkProcessStartService;
+
     /**
      * 启动请假流程
      */
@@ -37,9 +54,64 @@ public class WorkflowController {
         return result;
     }
 
+    /**
+     * 创建批量发起任务，之后通过 /bulk-start/jobs/{jobId}/records 提交记录流
+     */
+    @PostMapping("/bulk-start/jobs")
+    public Map<String, Object> createBulkStartJob(@RequestParam String processKey) {
+        Map<String, Object> result = new HashMap<>();
+        try {
+            BulkStartJob job = bulkProcessStartService.createJob(processKey);
+            result.put("success", true);
+            result.put("jobId", job.getId());
+        } catch (Exception e) {
+            result.put("success", false);
+            result.put("message", "创建批量发起任务失败: " + e.getMessage());
+        }
+        return result;
+    }
+
+    /**
+     * 提交 NDJSON 记录流批量发起流程，每行一条 {"businessKey": "...", "variables": {...}}，
+     * 全部提交后返回任务；中断后重新提交同一记录流即从上次提交完成的位置继续
+     */
+    @PostMapping(value = "/bulk-start/jobs/{jobId}/records",
+            consumes = {"application/x-ndjson", "application/json", "text/plain"})
+    public Map<String, Object> submitBulkStartRecords(@PathVariable Long jobId, InputStream records) {
+        Map<String, Object> result = new HashMap<>();
+        try {
+            BulkStartJob job = bulkProcessStartService.run(jobId, records);
+            result.put("success", BulkStartJob.STATUS_COMPLETED.equals(job.getStatus()));
+            result.put("job", job);
+        } catch (Exception e) {
+            result.put("success", false);
+            result.put("message", e.getMessage());
+        }
+        return result;
+    }
+
+    /**
+     * 查询批量发起进度
+     */
+    @GetMapping("/bulk-start/jobs/{jobId}")
+    public Map<String, Object> getBulkStartJob(@PathVariable Long jobId) {
+        Map<String, Object> result = new HashMap<>();
+        try {
+            result.put("success", true);
+            result.put("job", bulkProcessStartService.getJob(jobId));
+        } catch (Exception e) {
+            result.put("success", false);
+            result.put("message", e.getMessage());
+        }
+        return result;
+    }
+
     /**
      * 获取用户待办任务
+     *
+     * @deprecated 不分页，使用 {@code /inbox/user/{userId}}
      */
+    @Deprecated
     @GetMapping("/tasks/user/{userId}")
     public List<Task> getUserTasks(@PathVariable String userId) {
         List<Task> userTasks = workflowService.getUserTasks(userId);
@@ -49,12 +121,75 @@ public class WorkflowController {
 
     /**
      * 获取组待办任务
+     *
+     * @deprecated 不分页，使用 {@code /inbox/group/{groupId}}
      */
+    @Deprecated
     @GetMapping("/tasks/group/{groupId}")
     public List<Task> getGroupTasks(@PathVariable String groupId) {
         return workflowService.getGroupTasks(groupId);
     }
 
+    /**
+     * 键集分页获取用户待办（分配给用户的任务），第一页返回总数
+     */
+    @GetMapping("/inbox/user/{userId}")
+    public ResponseEntity<?> getUserInbox(@PathVariable String userId,
+                                          @RequestParam(required = false) String cursor,
+                                          @RequestParam(defaultValue = "50") int size) {
+        try {
+            return ResponseEntity.ok(taskInboxService.getAssigneePage(userId, cursor, size));
+        } catch (RuntimeException e) {
+            return requestError(e);
+        }
+    }
+
+    /**
+     * "我的工作"：分配给用户与用户/所在组可认领的任务合并分页，按优先级、创建时间倒序
+     * <p>
+     * groups 未传时从 IdentityService 查询用户所在组，身份引擎未启用时必须传入
+     */
+    @GetMapping("/inbox/{userId}")
+    public ResponseEntity<?> getMyWorkInbox(@PathVariable String userId,
+                                            @RequestParam(required = false) List<String> groups,
+                                            @RequestParam(required = false) String cursor,
+                                            @RequestParam(defaultValue = "50") int size) {
+        try {
+            return ResponseEntity.ok(taskInboxService.getMyWorkPage(userId, groups, cursor, size));
+        } catch (RuntimeException e) {
+            return requestError(e);
+        }
+    }
+
+    /**
+     * 键集分页获取用户本人或所在组（groups）作为候选的待认领任务
+     */
+    @GetMapping("/inbox/candidate/{userId}")
+    public ResponseEntity<?> getCandidateInbox(@PathVariable String userId,
+                                               @RequestParam(required = false) List<String> groups,
+                                               @RequestParam(required = false) String cursor,
+                                               @RequestParam(defaultValue = "50") int size) {
+        try {
+            return ResponseEntity.ok(taskInboxService.getCandidateUserPage(userId, groups, cursor, size));
+        } catch (RuntimeException e) {
+            return requestError(e);
+        }
+    }
+
+    /**
+     * 键集分页获取组待认领任务
+     */
+    @GetMapping("/inbox/group/{groupId}")
+    public ResponseEntity<?> getGroupInbox(@PathVariable String groupId,
+                                           @RequestParam(required = false) String cursor,
+                                           @RequestParam(defaultValue = "50") int size) {
+        try {
+            return ResponseEntity.ok(taskInboxService.getCandidateGroupPage(groupId, cursor, size));
+        } catch (RuntimeException e) {
+            return requestError(e);
+        }
+    }
+
     /**
      * 认领任务
      */
@@ -83,6 +218,31 @@ public class WorkflowController {
         return result;
     }
 
+    /**
+     * 批量认领任务，返回每个任务的结果
+     */
+    @PostMapping("/tasks/bulk/claim")
+    public ResponseEntity<?> claimTasks(@RequestParam String userId,
+                                        @RequestBody List<String> taskIds) {
+        try {
+            return ResponseEntity.ok(bulkResult(bulkTaskService.claimTasks(taskIds, userId)));
+        } catch (RuntimeException e) {
+            return requestError(e);
+        }
+    }
+
+    /**
+     * 批量完成任务，每个任务可带各自的变量，返回每个任务的结果
+     */
+    @PostMapping("/tasks/bulk/complete")
+    public ResponseEntity<?> completeTasks(@RequestBody List<BulkTaskItem> tasks) {
+        try {
+            return ResponseEntity.ok(bulkResult(bulkTaskService.completeTasks(tasks)));
+        } catch (RuntimeException e) {
+            return requestError(e);
+        }
+    }
+
     /**
      * 查询流程历史
      */
@@ -108,4 +268,23 @@ public class WorkflowController {
         stats.put("processDefinitionCount", workflowService.getProcessDefinitionCount());
         return stats;
     }
+
+    private Map<String, Object> bulkResult(List<TaskOperationResult> results) {
+        long succeeded = results.stream().filter(TaskOperationResult::isSuccess).count();
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("success", succeeded == results.size());
+        result.put("total", results.size());
+        result.put("succeeded", succeeded);
+        result.put("failed", results.size() - succeeded);
+        result.put("results", results);
+        return result;
+    }
+
+    private ResponseEntity<Map<String, Object>> requestError(RuntimeException e) {
+        return ResponseEntity.badRequest().body(Map.of(
+                "error", e.getMessage(),
+                "success", false
+        ));
+    }
 }
\ No newline at end of file
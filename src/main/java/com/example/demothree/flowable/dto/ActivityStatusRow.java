@@ -0,0 +1,20 @@
+package com.example.demothree.flowable.dto;
+
+import lombok.Data;
+
+import java.io.Serializable;
+import java.util.Date;
+
+/**
+ * 活动节点状态（批量流程图查询只需要的列）
+ */
+@Data
+public class ActivityStatusRow implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private String processInstanceId;
+    private String activityId;
+    private String activityType;
+    private Date endTime;
+}
@@ -0,0 +1,39 @@
+package com.example.demothree.flowable.dto;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import lombok.Getter;
+import lombok.Setter;
+import org.flowable.engine.history.HistoricActivityInstance;
+
+/**
+ * 时间线条目 - 活动
+ */
+@Getter
+@Setter
+@JsonPropertyOrder({"type", "activityId", "activityName", "activityType", "startTime", "endTime",
+        "duration", "assignee", "status"})
+public class ActivityTimelineItem extends TimelineItem {
+
+    private static final long serialVersionUID = 1L;
+
+    private String activityId;
+    private String activityName;
+    private String activityType;
+
+    public ActivityTimelineItem() {
+        super("ACTIVITY");
+    }
+
+    public static ActivityTimelineItem of(HistoricActivityInstance activity) {
+        ActivityTimelineItem item = new ActivityTimelineItem();
+        item.setActivityId(activity.getActivityId());
+        item.setActivityName(activity.getActivityName());
+        item.setActivityType(activity.getActivityType());
+        item.setStartTime(activity.getStartTime());
+        item.setEndTime(activity.getEndTime());
+        item.setDuration(activity.getDurationInMillis());
+        item.setAssignee(activity.getAssignee());
+        item.setStatus(activity.getEndTime() != null ? "COMPLETED" : "RUNNING");
+        return item;
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.demothree.flowable.dto;
+
+import lombok.Data;
+
+import java.io.Serializable;
+import java.util.Map;
+
+/**
+ * 批量发起流程的一条记录（NDJSON 中的一行）
+ */
+@Data
+public class BulkStartRecord implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private String businessKey;
+    private Map<String, Object> variables;
+}
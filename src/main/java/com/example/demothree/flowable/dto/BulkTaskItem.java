@@ -0,0 +1,21 @@
+package com.example.demothree.flowable.dto;
+
+import lombok.Data;
+
+import java.io.Serializable;
+import java.util.Map;
+
+/**
+ * 批量办理中的单个任务
+ */
+@Data
+public class BulkTaskItem implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private String taskId;
+    /**
+     * 办理时提交的变量，可为空
+     */
+    private Map<String, Object> variables;
+}
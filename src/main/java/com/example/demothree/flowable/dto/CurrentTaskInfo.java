@@ -0,0 +1,34 @@
+package com.example.demothree.flowable.dto;
+
+import lombok.Data;
+import org.flowable.task.api.Task;
+
+import java.io.Serializable;
+import java.util.Date;
+
+/**
+ * 当前待办任务摘要
+ */
+@Data
+public class CurrentTaskInfo implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private String taskId;
+    private String taskName;
+    private String assignee;
+    private Date createTime;
+    private Date dueDate;
+    private int priority;
+
+    public static CurrentTaskInfo of(Task task) {
+        CurrentTaskInfo taskInfo = new CurrentTaskInfo();
+        taskInfo.setTaskId(task.getId());
+        taskInfo.setTaskName(task.getName());
+        taskInfo.setAssignee(task.getAssignee());
+        taskInfo.setCreateTime(task.getCreateTime());
+        taskInfo.setDueDate(task.getDueDate());
+        taskInfo.setPriority(task.getPriority());
+        return taskInfo;
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.demothree.flowable.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+import java.io.Serializable;
+
+/**
+ * 单个流程文件的部署结果
+ */
+@Data
+@Accessors(chain = true)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class DeploymentOutcome implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    public static final String STATUS_DEPLOYED = "DEPLOYED";
+    public static final String STATUS_UNCHANGED = "UNCHANGED";
+    public static final String STATUS_FAILED = "FAILED";
+    /**
+     * 超时前未完成，部署可能仍在后台进行
+     */
+    public static final String STATUS_TIMEOUT = "TIMEOUT";
+
+    private String fileName;
+    private String status;
+    private String processKey;
+    private String deploymentId;
+    private String processDefinitionId;
+    private Integer version;
+    private String message;
+    private Long durationMillis;
+}
@@ -0,0 +1,36 @@
+package com.example.demothree.flowable.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * 键集分页结果
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class KeysetPage<T> implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private List<T> items;
+    /**
+     * 下一页游标，没有更多数据时为 null
+     */
+    private String nextCursor;
+    private boolean hasMore;
+    /**
+     * 总数，仅在需要时返回
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long total;
+
+    public KeysetPage(List<T> items, String nextCursor, boolean hasMore) {
+        this(items, nextCursor, hasMore, null);
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.demothree.flowable.dto;
+
+import cn.hutool.core.util.StrUtil;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * 键集分页游标：排序时间 + 主键（可选优先级），对外以 Base64URL 字符串传递
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PageCursor {
+
+    private Date sortTime;
+    private String id;
+    private Integer priority;
+
+    public PageCursor(Date sortTime, String id) {
+        this(sortTime, id, null);
+    }
+
+    /**
+     * 编码为游标字符串
+     */
+    public String encode() {
+        String raw = (sortTime != null ? sortTime.getTime() : "") + "," + id
+                + (priority != null ? "," + priority : "");
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 解析游标字符串，空串返回 null（表示第一页）
+     */
+    public static PageCursor decode(String cursor) {
+        if (StrUtil.isBlank(cursor)) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            List<String> parts = StrUtil.split(raw, ',');
+            PageCursor pageCursor = new PageCursor();
+            pageCursor.setSortTime(StrUtil.isEmpty(parts.get(0)) ? null : new Date(Long.parseLong(parts.get(0))));
+            pageCursor.setId(parts.get(1));
+            if (parts.size() > 2) {
+                pageCursor.setPriority(Integer.parseInt(parts.get(2)));
+            }
+            return pageCursor;
+        } catch (RuntimeException e) {
+            throw new RuntimeException("非法的分页游标: " + cursor);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.demothree.flowable.dto;
+
+import lombok.Data;
+import org.flowable.engine.repository.ProcessDefinition;
+
+import java.io.Serializable;
+
+/**
+ * 流程定义基础信息
+ */
+@Data
+public class ProcessDefinitionBrief implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private String id;
+    private String key;
+    private String name;
+    private int version;
+    private String deploymentId;
+    private String resourceName;
+
+    public static ProcessDefinitionBrief of(ProcessDefinition processDefinition) {
+        ProcessDefinitionBrief brief = new ProcessDefinitionBrief();
+        brief.setId(processDefinition.getId());
+        brief.setKey(processDefinition.getKey());
+        brief.setName(processDefinition.getName());
+        brief.setVersion(processDefinition.getVersion());
+        brief.setDeploymentId(processDefinition.getDeploymentId());
+        brief.setResourceName(processDefinition.getResourceName());
+        return brief;
+    }
+}
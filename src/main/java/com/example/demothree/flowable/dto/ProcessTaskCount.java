@@ -0,0 +1,18 @@
+package com.example.demothree.flowable.dto;
+
+import lombok.Data;
+
+import java.io.Serializable;
+
+/**
+ * 单个流程实例的任务完成统计
+ */
+@Data
+public class ProcessTaskCount implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private String processInstanceId;
+    private long totalTasks;
+    private long completedTasks;
+}
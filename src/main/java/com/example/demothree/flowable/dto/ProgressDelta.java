@@ -0,0 +1,36 @@
+package com.example.demothree.flowable.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+
+import java.io.Serializable;
+import java.util.Date;
+
+/**
+ * 流程进度增量（SSE 推送）
+ */
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ProgressDelta implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private String processInstanceId;
+    /**
+     * 引擎事件类型，如 ACTIVITY_COMPLETED、TASK_CREATED
+     */
+    private String eventType;
+    private String activityId;
+    private String activityType;
+    private String taskId;
+    private String taskName;
+    private String assignee;
+    private Date eventTime;
+
+    /**
+     * 推送时的快照状态
+     */
+    private String processStatus;
+    private Integer progressPercentage;
+    private Long revision;
+}
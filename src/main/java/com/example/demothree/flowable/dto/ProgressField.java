@@ -0,0 +1,56 @@
+package com.example.demothree.flowable.dto;
+
+import cn.hutool.core.util.StrUtil;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * 流程进度详情可选字段（fields= 参数）
+ */
+public enum ProgressField {
+
+    /**
+     * 基础信息：流程定义、业务键、流程名称、开始/结束时间
+     */
+    BASIC("basic"),
+    STATUS("status"),
+    PERCENTAGE("percentage"),
+    CURRENT_TASKS("currentTasks"),
+    TIMELINE("timeline"),
+    VARIABLES("variables"),
+    DURATION("duration");
+
+    private final String code;
+
+    ProgressField(String code) {
+        this.code = code;
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    /**
+     * 解析逗号分隔的字段列表，为空时返回全部字段
+     */
+    public static Set<ProgressField> parse(String fields) {
+        if (StrUtil.isBlank(fields)) {
+            return EnumSet.allOf(ProgressField.class);
+        }
+        Set<ProgressField> result = EnumSet.noneOf(ProgressField.class);
+        for (String code : StrUtil.splitTrim(fields, ',')) {
+            result.add(ofCode(code));
+        }
+        return result;
+    }
+
+    private static ProgressField ofCode(String code) {
+        for (ProgressField field : values()) {
+            if (field.code.equalsIgnoreCase(code)) {
+                return field;
+            }
+        }
+        throw new RuntimeException("未知的进度字段: " + code);
+    }
+}
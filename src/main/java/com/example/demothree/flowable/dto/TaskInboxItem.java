@@ -0,0 +1,26 @@
+package com.example.demothree.flowable.dto;
+
+import lombok.Data;
+
+import java.io.Serializable;
+import java.util.Date;
+
+/**
+ * 待办列表项，只包含列表展示需要的字段
+ */
+@Data
+public class TaskInboxItem implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private String id;
+    private String name;
+    private Date createTime;
+    private Date dueDate;
+    private Integer priority;
+    private String processInstanceId;
+    /**
+     * 处理人，候选任务尚未认领时为 null
+     */
+    private String assignee;
+}
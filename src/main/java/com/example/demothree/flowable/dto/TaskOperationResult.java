@@ -0,0 +1,22 @@
+package com.example.demothree.flowable.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+import java.io.Serializable;
+
+/**
+ * 批量认领/办理中单个任务的结果
+ */
+@Data
+@Accessors(chain = true)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TaskOperationResult implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private String taskId;
+    private boolean success;
+    private String message;
+}
@@ -0,0 +1,47 @@
+package com.example.demothree.flowable.dto;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import lombok.Getter;
+import lombok.Setter;
+import org.flowable.task.api.history.HistoricTaskInstance;
+
+import java.util.Date;
+
+/**
+ * 时间线条目 - 任务
+ */
+@Getter
+@Setter
+@JsonPropertyOrder({"type", "taskId", "taskName", "taskDefinitionKey", "assignee", "owner", "startTime",
+        "endTime", "duration", "dueDate", "priority", "status"})
+public class TaskTimelineItem extends TimelineItem {
+
+    private static final long serialVersionUID = 1L;
+
+    private String taskId;
+    private String taskName;
+    private String taskDefinitionKey;
+    private String owner;
+    private Date dueDate;
+    private int priority;
+
+    public TaskTimelineItem() {
+        super("TASK");
+    }
+
+    public static TaskTimelineItem of(HistoricTaskInstance task) {
+        TaskTimelineItem item = new TaskTimelineItem();
+        item.setTaskId(task.getId());
+        item.setTaskName(task.getName());
+        item.setTaskDefinitionKey(task.getTaskDefinitionKey());
+        item.setAssignee(task.getAssignee());
+        item.setOwner(task.getOwner());
+        item.setStartTime(task.getStartTime());
+        item.setEndTime(task.getEndTime());
+        item.setDuration(task.getDurationInMillis());
+        item.setDueDate(task.getDueDate());
+        item.setPriority(task.getPriority());
+        item.setStatus(task.getEndTime() != null ? "COMPLETED" : "RUNNING");
+        return item;
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.demothree.flowable.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.util.Date;
+
+/**
+ * 流程进度时间线条目
+ */
+@Getter
+@Setter
+public abstract class TimelineItem implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private String type;
+    private String assignee;
+    private Date startTime;
+    private Date endTime;
+    private Long duration;
+    private String status;
+
+    protected TimelineItem(String type) {
+        this.type = type;
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.demothree.flowable.entity;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableField;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+
+import java.io.Serializable;
+import java.util.Date;
+
+/**
+ * <p>
+ * 批量发起任务已发起的流程实例，与发起在同一事务中写入
+ * </p>
+ */
+@Getter
+@Setter
+@Accessors(chain = true)
+@TableName("wf_bulk_start_instance")
+public class BulkStartInstance implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * id
+     */
+    @TableId(value = "id", type = IdType.AUTO)
+    private Long id;
+
+    /**
+     * 批量发起任务ID
+     */
+    @TableField("job_id")
+    private Long jobId;
+
+    /**
+     * 业务键
+     */
+    @TableField("business_key")
+    private String businessKey;
+
+    /**
+     * 流程实例ID
+     */
+    @TableField("process_instance_id")
+    private String processInstanceId;
+
+    /**
+     * 创建时间
+     */
+    @TableField("create_time")
+    private Date createTime;
+}
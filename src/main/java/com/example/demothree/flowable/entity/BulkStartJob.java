@@ -0,0 +1,103 @@
+package com.example.demothree.flowable.entity;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableField;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+
+import java.io.Serializable;
+import java.util.Date;
+
+/**
+ * <p>
+ * 批量发起流程任务，watermark 为连续提交完成的记录数，重新提交同一记录流时从该位置之后继续
+ * </p>
+ */
+@Getter
+@Setter
+@Accessors(chain = true)
+@TableName("wf_bulk_start_job")
+public class BulkStartJob implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    public static final String STATUS_PENDING = "PENDING";
+    public static final String STATUS_RUNNING = "RUNNING";
+    public static final String STATUS_COMPLETED = "COMPLETED";
+    public static final String STATUS_FAILED = "FAILED";
+
+    /**
+     * id
+     */
+    @TableId(value = "id", type = IdType.AUTO)
+    private Long id;
+
+    /**
+     * 流程定义key
+     */
+    @TableField("process_key")
+    private String processKey;
+
+    /**
+     * 状态 PENDING/RUNNING/COMPLETED/FAILED
+     */
+    @TableField("status")
+    private String status;
+
+    /**
+     * 已连续提交完成的记录数（含失败与跳过的记录）
+     */
+    @TableField("watermark")
+    private Long watermark;
+
+    /**
+     * 已读取的记录数
+     */
+    @TableField("read_count")
+    private Long readCount;
+
+    /**
+     * 已发起的流程实例数
+     */
+    @TableField("started_count")
+    private Long startedCount;
+
+    /**
+     * 因已提交或业务键已存在而跳过的记录数
+     */
+    @TableField("skipped_count")
+    private Long skippedCount;
+
+    /**
+     * 失败的记录数
+     */
+    @TableField("failed_count")
+    private Long failedCount;
+
+    /**
+     * 本次运行的发起速率（条/秒）
+     */
+    @TableField("throughput")
+    private Double throughput;
+
+    /**
+     * 最近一次失败原因
+     */
+    @TableField("error_message")
+    private String errorMessage;
+
+    /**
+     * 创建时间
+     */
+    @TableField("create_time")
+    private Date createTime;
+
+    /**
+     * 更新时间
+     */
+    @TableField("update_time")
+    private Date updateTime;
+}
@@ -0,0 +1,133 @@
+package com.example.demothree.flowable.entity;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableField;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+
+import java.io.Serializable;
+import java.util.Date;
+
+/**
+ * <p>
+ * 旧版本部署清理任务，按版本号升序分批删除，last_version 为已处理到的版本，用于中断后续跑
+ * </p>
+ */
+@Getter
+@Setter
+@Accessors(chain = true)
+@TableName("wf_cleanup_job")
+public class CleanupJob implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    public static final String STATUS_PENDING = "PENDING";
+    public static final String STATUS_RUNNING = "RUNNING";
+    public static final String STATUS_COMPLETED = "COMPLETED";
+    public static final String STATUS_FAILED = "FAILED";
+
+    /**
+     * id
+     */
+    @TableId(value = "id", type = IdType.AUTO)
+    private Long id;
+
+    /**
+     * 流程定义key
+     */
+    @TableField("process_key")
+    private String processKey;
+
+    /**
+     * 保留的最近版本数
+     */
+    @TableField("keep_versions")
+    private Integer keepVersions;
+
+    /**
+     * 删除版本号小于该值的流程定义
+     */
+    @TableField("cutoff_version")
+    private Integer cutoffVersion;
+
+    /**
+     * 是否只估算不删除
+     */
+    @TableField("dry_run")
+    private Boolean dryRun;
+
+    /**
+     * 状态 PENDING/RUNNING/COMPLETED/FAILED
+     */
+    @TableField("status")
+    private String status;
+
+    /**
+     * 待处理的流程定义数
+     */
+    @TableField("total_count")
+    private Integer totalCount;
+
+    /**
+     * 已删除的流程定义数
+     */
+    @TableField("deleted_count")
+    private Integer deletedCount;
+
+    /**
+     * 试运行时统计的可删除流程定义数
+     */
+    @TableField("deletable_count")
+    private Integer deletableCount;
+
+    /**
+     * 因部署中包含其他流程而跳过的流程定义数
+     */
+    @TableField("skipped_count")
+    private Integer skippedCount;
+
+    /**
+     * 已处理到的版本号
+     */
+    @TableField("last_version")
+    private Integer lastVersion;
+
+    /**
+     * 估算影响的行数
+     */
+    @TableField("estimated_rows")
+    private Long estimatedRows;
+
+    /**
+     * 各表估算行数(JSON)
+     */
+    @TableField("estimate_detail")
+    private String estimateDetail;
+
+    /**
+     * 执行该任务的节点，认领后写入
+     */
+    @TableField("owner")
+    private String owner;
+
+    /**
+     * 失败原因
+     */
+    @TableField("error_message")
+    private String errorMessage;
+
+    /**
+     * 创建时间
+     */
+    @TableField("create_time")
+    private Date createTime;
+
+    /**
+     * 更新时间
+     */
+    @TableField("update_time")
+    private Date updateTime;
+}
@@ -0,0 +1,56 @@
+package com.example.demothree.flowable.entity;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableField;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+
+import java.io.Serializable;
+import java.util.Date;
+
+/**
+ * <p>
+ * 流程部署校验和，每个流程 key 保留最近一次部署的校验和
+ * </p>
+ */
+@Getter
+@Setter
+@Accessors(chain = true)
+@TableName("wf_deployment_checksum")
+public class DeploymentChecksum implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 流程定义key（BPMN process id）
+     */
+    @TableId(value = "process_key", type = IdType.INPUT)
+    private String processKey;
+
+    /**
+     * 校验和
+     */
+    @TableField("checksum")
+    private String checksum;
+
+    /**
+     * 部署ID
+     */
+    @TableField("deployment_id")
+    private String deploymentId;
+
+    /**
+     * 资源文件名
+     */
+    @TableField("resource_name")
+    private String resourceName;
+
+    /**
+     * 更新时间
+     */
+    @TableField("update_time")
+    private Date updateTime;
+}
@@ -0,0 +1,152 @@
+package com.example.demothree.flowable.entity;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableField;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import com.example.demothree.flowable.dto.CurrentTaskInfo;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <p>
+ * 流程进度快照，由流程事件增量维护
+ * </p>
+ */
+@Getter
+@Setter
+@Accessors(chain = true)
+@TableName("wf_progress_snapshot")
+public class ProgressSnapshot implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 流程实例ID
+     */
+    @TableId(value = "process_instance_id", type = IdType.INPUT)
+    private String processInstanceId;
+
+    /**
+     * 流程定义ID
+     */
+    @TableField("process_definition_id")
+    private String processDefinitionId;
+
+    /**
+     * 业务键
+     */
+    @TableField("business_key")
+    private String businessKey;
+
+    /**
+     * 流程状态 RUNNING / COMPLETED
+     */
+    @TableField("status")
+    private String status;
+
+    /**
+     * 开始时间
+     */
+    @TableField("start_time")
+    private Date startTime;
+
+    /**
+     * 结束时间
+     */
+    @TableField("end_time")
+    private Date endTime;
+
+    /**
+     * 已开始的活动数
+     */
+    @TableField("activity_count")
+    private int activityCount;
+
+    /**
+     * 已完成的活动数
+     */
+    @TableField("completed_activity_count")
+    private int completedActivityCount;
+
+    /**
+     * 进度百分比
+     */
+    @TableField("progress_percentage")
+    private int progressPercentage;
+
+    /**
+     * 当前任务（JSON）
+     */
+    @TableField("current_tasks")
+    private String currentTasks;
+
+    /**
+     * 节点状态（JSON）
+     */
+    @TableField("node_status")
+    private String nodeStatus;
+
+    /**
+     * 修订号，每次事件更新加一
+     */
+    @TableField("revision")
+    private long revision;
+
+    /**
+     * 最后更新时间
+     */
+    @TableField("last_updated")
+    private Date lastUpdated;
+
+    /**
+     * 写表时的期望修订号（读取时表中的修订号），为空表示新快照
+     */
+    @TableField(exist = false)
+    private Long baseRevision;
+
+    /**
+     * 当前任务（解析后）
+     */
+    @TableField(exist = false)
+    private List<CurrentTaskInfo> currentTaskList = new ArrayList<>();
+
+    /**
+     * 节点状态（解析后）
+     */
+    @TableField(exist = false)
+    private Map<String, String> nodeStatusMap = new LinkedHashMap<>();
+
+    public boolean isCompleted() {
+        return "COMPLETED".equals(status);
+    }
+
+    /**
+     * 复制一份可修改的快照，缓存中的实例对读者只读
+     */
+    public ProgressSnapshot copy() {
+        ProgressSnapshot copy = new ProgressSnapshot()
+                .setProcessInstanceId(processInstanceId)
+                .setProcessDefinitionId(processDefinitionId)
+                .setBusinessKey(businessKey)
+                .setStatus(status)
+                .setStartTime(startTime)
+                .setEndTime(endTime)
+                .setActivityCount(activityCount)
+                .setCompletedActivityCount(completedActivityCount)
+                .setProgressPercentage(progressPercentage)
+                .setRevision(revision)
+                .setLastUpdated(lastUpdated);
+        copy.setCurrentTaskList(new ArrayList<>(currentTaskList));
+        copy.setNodeStatusMap(new LinkedHashMap<>(nodeStatusMap));
+        return copy;
+    }
+}
@@ -0,0 +1,176 @@
+package com.example.demothree.flowable.listener;
+
+import com.example.demothree.config.WorkflowProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.flowable.common.engine.api.delegate.event.FlowableEngineEventType;
+import org.flowable.common.engine.api.delegate.event.FlowableEntityEvent;
+import org.flowable.common.engine.api.delegate.event.FlowableEvent;
+import org.flowable.common.engine.api.delegate.event.FlowableEventListener;
+import org.flowable.engine.ManagementService;
+import org.flowable.job.api.Job;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 异步作业监控
+ * <p>
+ * 由作业执行事件上报 workflow.async.job.latency（从到期到执行结束的耗时，含等待获取与排队，以 outcome 标签区分成功/失败）
+ * 与 workflow.async.job.failed（执行失败次数）；后台定时统计作业表，上报 workflow.async.jobs
+ * （state 标签：queued 待获取、locked 已获取执行中、timer-due 已到期定时器、deadletter 重试耗尽）。
+ */
+@Slf4j
+@Component
+public class AsyncJobMetricsListener implements FlowableEventListener {
+
+    /**
+     * 积压数未知（统计失败），指标上报为 NaN
+     */
+    private static final long UNKNOWN = -1;
+
+    private final MeterRegistry meterRegistry;
+    private final WorkflowProperties workflowProperties;
+    /**
+     * 延迟注入：ManagementService 由引擎创建，而本监听器在引擎创建前注册
+     */
+    private final ManagementService managementService;
+
+    private final Timer succeededLatency;
+    private final Timer failedLatency;
+    private final Counter failedJobs;
+
+    private final AtomicLong queuedJobs = new AtomicLong();
+    private final AtomicLong lockedJobs = new AtomicLong();
+    private final AtomicLong dueTimerJobs = new AtomicLong();
+    private final AtomicLong deadLetterJobs = new AtomicLong();
+
+    private ScheduledExecutorService refresher;
+    /**
+     * 连续统计失败次数，只在单线程的 refresher 中读写
+     */
+    private int refreshFailures;
+
+    public AsyncJobMetricsListener(MeterRegistry meterRegistry, WorkflowProperties workflowProperties,
+                                   @Lazy ManagementService managementService) {
+        this.meterRegistry = meterRegistry;
+        this.workflowProperties = workflowProperties;
+        this.managementService = managementService;
+
+        this.succeededLatency = latencyTimer("success");
+        this.failedLatency = latencyTimer("failure");
+        this.failedJobs = Counter.builder("workflow.async.job.failed")
+                .description("异步作业执行失败次数（每次重试单独计数）")
+                .register(meterRegistry);
+        registerBacklogGauge("queued", queuedJobs);
+        registerBacklogGauge("locked", lockedJobs);
+        registerBacklogGauge("timer-due", dueTimerJobs);
+        registerBacklogGauge("deadletter", deadLetterJobs);
+    }
+
+    @Override
+    public void onEvent(FlowableEvent event) {
+        if (event.getType() == FlowableEngineEventType.JOB_EXECUTION_SUCCESS) {
+            recordLatency(event, succeededLatency);
+        } else if (event.getType() == FlowableEngineEventType.JOB_EXECUTION_FAILURE) {
+            failedJobs.increment();
+            recordLatency(event, failedLatency);
+        }
+    }
+
+    /**
+     * 引擎就绪后开始定时统计作业积压，统计走计数查询，不随抓取频率增加数据库压力
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void startBacklogRefresh() {
+        int interval = Math.max(1, workflowProperties.getAsyncExecutor().getMetricsRefreshSeconds());
+        refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "Async-Job-Metrics");
+            thread.setDaemon(true);
+            return thread;
+        });
+        refresher.scheduleWithFixedDelay(this::refreshBacklog, 0, interval, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (refresher != null) {
+            refresher.shutdownNow();
+        }
+    }
+
+    /**
+     * 统计失败时积压指标置为 NaN，不再上报过期的数值；连续失败只在第一次记录异常，恢复后记录一次
+     */
+    private void refreshBacklog() {
+        try {
+            queuedJobs.set(managementService.createJobQuery().unlocked().count());
+            lockedJobs.set(managementService.createJobQuery().locked().count());
+            dueTimerJobs.set(managementService.createTimerJobQuery().executable().count());
+            deadLetterJobs.set(managementService.createDeadLetterJobQuery().count());
+            if (refreshFailures > 0) {
+                log.info("统计异步作业积压已恢复，此前连续失败 {} 次", refreshFailures);
+                refreshFailures = 0;
+            }
+        } catch (Exception e) {
+            queuedJobs.set(UNKNOWN);
+            lockedJobs.set(UNKNOWN);
+            dueTimerJobs.set(UNKNOWN);
+            deadLetterJobs.set(UNKNOWN);
+            if (refreshFailures++ == 0) {
+                log.warn("统计异步作业积压失败，恢复前不再重复记录", e);
+            }
+        }
+    }
+
+    private void recordLatency(FlowableEvent event, Timer timer) {
+        if (!(event instanceof FlowableEntityEvent entityEvent) || !(entityEvent.getEntity() instanceof Job job)) {
+            return;
+        }
+        Date dueAt = job.getDuedate() != null ? job.getDuedate() : job.getCreateTime();
+        if (dueAt != null) {
+            timer.record(Math.max(0, System.currentTimeMillis() - dueAt.getTime()), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private Timer latencyTimer(String outcome) {
+        return Timer.builder("workflow.async.job.latency")
+                .description("异步作业从到期到执行结束的耗时（含等待获取与排队）")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private void registerBacklogGauge(String state, AtomicLong value) {
+        Gauge.builder("workflow.async.jobs", value, v -> v.get() == UNKNOWN ? Double.NaN : v.get())
+                .description("异步作业积压数")
+                .tag("state", state)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public boolean isFailOnException() {
+        // 监控失败不影响作业执行
+        return false;
+    }
+
+    @Override
+    public boolean isFireOnTransactionLifecycleEvent() {
+        return false;
+    }
+
+    @Override
+    public String getOnTransaction() {
+        return null;
+    }
+}
@@ -0,0 +1,250 @@
+package com.example.demothree.flowable.listener;
+
+import com.example.demothree.flowable.cache.ProcessGraphCache;
+import com.example.demothree.flowable.cache.ProgressSnapshotStore;
+import com.example.demothree.flowable.dto.CurrentTaskInfo;
+import com.example.demothree.flowable.dto.ProgressDelta;
+import com.example.demothree.flowable.entity.ProgressSnapshot;
+import com.example.demothree.flowable.service.ProgressStreamService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.flowable.common.engine.api.delegate.event.FlowableEngineEvent;
+import org.flowable.common.engine.api.delegate.event.FlowableEngineEventType;
+import org.flowable.common.engine.api.delegate.event.FlowableEntityEvent;
+import org.flowable.common.engine.api.delegate.event.FlowableEvent;
+import org.flowable.common.engine.api.delegate.event.FlowableEventListener;
+import org.flowable.engine.delegate.event.FlowableActivityEvent;
+import org.flowable.engine.runtime.ProcessInstance;
+import org.flowable.task.api.Task;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * 流程进度快照维护监听器
+ * <p>
+ * 在引擎事务内根据流程、活动、任务事件增量更新 {@link ProgressSnapshot}，
+ * 进度查询命中快照时无需再从 ACT_HI_* 表重建状态；同时把变化以增量形式交给 SSE 推送。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ProgressSnapshotEventListener implements FlowableEventListener {
+
+    private final ProgressSnapshotStore snapshotStore;
+    /**
+     * 延迟注入：流程图缓存依赖 RepositoryService，而本监听器在引擎创建前注册
+     */
+    @Lazy
+    private final ProcessGraphCache processGraphCache;
+    @Lazy
+    private final ProgressStreamService progressStreamService;
+
+    @Override
+    public void onEvent(FlowableEvent event) {
+        if (!(event.getType() instanceof FlowableEngineEventType type)
+                || !(event instanceof FlowableEngineEvent engineEvent)) {
+            return;
+        }
+
+        String processInstanceId = engineEvent.getProcessInstanceId();
+        if (snapshotStore.isEnabled()) {
+            updateSnapshot(type, processInstanceId, event);
+        }
+        publishDelta(type, processInstanceId, event);
+    }
+
+    private void updateSnapshot(FlowableEngineEventType type, String processInstanceId, FlowableEvent event) {
+        switch (type) {
+            case PROCESS_STARTED -> onProcessStarted(event);
+            case ACTIVITY_STARTED -> onActivityStarted(processInstanceId, (FlowableActivityEvent) event);
+            case ACTIVITY_COMPLETED -> onActivityCompleted(processInstanceId, (FlowableActivityEvent) event);
+            case ACTIVITY_CANCELLED -> onActivityCancelled(processInstanceId, (FlowableActivityEvent) event);
+            case TASK_CREATED, TASK_ASSIGNED -> onTaskChanged(processInstanceId, event);
+            // 任务办理后、随边界事件或流程取消被删除时都要移出当前任务
+            case TASK_COMPLETED, ENTITY_DELETED -> onTaskRemoved(processInstanceId, event);
+            // 任务属性修改（名称、到期日、优先级、拥有者或 saveTask），刷新任务摘要并递增修订号使 ETag 失效
+            case TASK_NAME_CHANGED, TASK_DUEDATE_CHANGED, TASK_PRIORITY_CHANGED, TASK_OWNER_CHANGED,
+                    ENTITY_UPDATED -> onTaskUpdated(processInstanceId, event);
+            case PROCESS_COMPLETED, PROCESS_COMPLETED_WITH_TERMINATE_END_EVENT, PROCESS_COMPLETED_WITH_ERROR_END_EVENT,
+                    PROCESS_COMPLETED_WITH_ESCALATION_END_EVENT, PROCESS_CANCELLED -> onProcessEnded(processInstanceId);
+            // 变量不在快照中，但会影响进度详情，递增修订号使 ETag 失效
+            case VARIABLE_CREATED, VARIABLE_UPDATED, VARIABLE_DELETED -> snapshotStore.touch(processInstanceId);
+            default -> {
+            }
+        }
+    }
+
+    /**
+     * 只推送影响时间线的事件，没有订阅者时直接返回
+     */
+    private void publishDelta(FlowableEngineEventType type, String processInstanceId, FlowableEvent event) {
+        switch (type) {
+            case ACTIVITY_STARTED, ACTIVITY_COMPLETED, ACTIVITY_CANCELLED, TASK_CREATED, TASK_ASSIGNED, TASK_COMPLETED,
+                    PROCESS_COMPLETED, PROCESS_COMPLETED_WITH_TERMINATE_END_EVENT, PROCESS_COMPLETED_WITH_ERROR_END_EVENT,
+                    PROCESS_COMPLETED_WITH_ESCALATION_END_EVENT, PROCESS_CANCELLED -> {
+            }
+            default -> {
+                return;
+            }
+        }
+        if (processInstanceId == null || !progressStreamService.hasSubscribers(processInstanceId)) {
+            return;
+        }
+
+        ProgressDelta delta = new ProgressDelta();
+        delta.setProcessInstanceId(processInstanceId);
+        delta.setEventType(type.name());
+        delta.setEventTime(new Date());
+        if (event instanceof FlowableActivityEvent activityEvent) {
+            delta.setActivityId(activityEvent.getActivityId());
+            delta.setActivityType(activityEvent.getActivityType());
+        }
+        Task task = taskOf(event);
+        if (task != null) {
+            delta.setTaskId(task.getId());
+            delta.setTaskName(task.getName());
+            delta.setAssignee(task.getAssignee());
+        }
+        progressStreamService.publish(delta);
+    }
+
+    private void onProcessStarted(FlowableEvent event) {
+        if (!(event instanceof FlowableEntityEvent entityEvent)
+                || !(entityEvent.getEntity() instanceof ProcessInstance processInstance)) {
+            return;
+        }
+        ProgressSnapshot snapshot = new ProgressSnapshot()
+                .setProcessInstanceId(processInstance.getProcessInstanceId())
+                .setProcessDefinitionId(processInstance.getProcessDefinitionId())
+                .setBusinessKey(processInstance.getBusinessKey())
+                .setStartTime(processInstance.getStartTime())
+                .setStatus("RUNNING");
+        snapshotStore.save(snapshot);
+    }
+
+    private void onActivityStarted(String processInstanceId, FlowableActivityEvent event) {
+        snapshotStore.update(processInstanceId, snapshot -> {
+            snapshot.setActivityCount(snapshot.getActivityCount() + 1);
+            if ("startEvent".equals(event.getActivityType())) {
+                snapshot.getNodeStatusMap().put(event.getActivityId(), "completed");
+            } else if ("endEvent".equals(event.getActivityType())) {
+                snapshot.getNodeStatusMap().put(event.getActivityId(), "pending");
+            } else {
+                snapshot.getNodeStatusMap().put(event.getActivityId(), "active");
+            }
+            recalculatePercentage(snapshot);
+        });
+    }
+
+    private void onActivityCompleted(String processInstanceId, FlowableActivityEvent event) {
+        snapshotStore.update(processInstanceId, snapshot -> {
+            snapshot.setCompletedActivityCount(snapshot.getCompletedActivityCount() + 1);
+            snapshot.getNodeStatusMap().put(event.getActivityId(), "completed");
+            recalculatePercentage(snapshot);
+        });
+    }
+
+    /**
+     * 活动被取消（边界事件中断、终止结束事件等），与全量重建一致计为已结束
+     */
+    private void onActivityCancelled(String processInstanceId, FlowableActivityEvent event) {
+        snapshotStore.update(processInstanceId, snapshot -> {
+            snapshot.setCompletedActivityCount(snapshot.getCompletedActivityCount() + 1);
+            snapshot.getNodeStatusMap().put(event.getActivityId(), "cancelled");
+            recalculatePercentage(snapshot);
+        });
+    }
+
+    private void onTaskChanged(String processInstanceId, FlowableEvent event) {
+        Task task = taskOf(event);
+        if (task == null) {
+            return;
+        }
+        snapshotStore.update(processInstanceId, snapshot -> {
+            snapshot.getCurrentTaskList().removeIf(current -> current.getTaskId().equals(task.getId()));
+            snapshot.getCurrentTaskList().add(CurrentTaskInfo.of(task));
+        });
+    }
+
+    /**
+     * 只刷新仍在当前任务中的任务，已办理或删除的任务不会被重新加入
+     */
+    private void onTaskUpdated(String processInstanceId, FlowableEvent event) {
+        Task task = taskOf(event);
+        if (task == null) {
+            return;
+        }
+        snapshotStore.update(processInstanceId, snapshot -> snapshot.getCurrentTaskList().replaceAll(
+                current -> current.getTaskId().equals(task.getId()) ? CurrentTaskInfo.of(task) : current));
+    }
+
+    private void onTaskRemoved(String processInstanceId, FlowableEvent event) {
+        Task task = taskOf(event);
+        if (task == null) {
+            return;
+        }
+        snapshotStore.update(processInstanceId,
+                snapshot -> snapshot.getCurrentTaskList().removeIf(current -> current.getTaskId().equals(task.getId())));
+    }
+
+    private void onProcessEnded(String processInstanceId) {
+        snapshotStore.update(processInstanceId, snapshot -> {
+            snapshot.setStatus("COMPLETED");
+            snapshot.setEndTime(new Date());
+            snapshot.getCurrentTaskList().clear();
+            recalculatePercentage(snapshot);
+        });
+    }
+
+    private Task taskOf(FlowableEvent event) {
+        if (event instanceof FlowableEntityEvent entityEvent && entityEvent.getEntity() instanceof Task task) {
+            return task;
+        }
+        return null;
+    }
+
+    /**
+     * 与全量重建口径一致：优先按预编译流程图计算，无法识别当前节点时退回 已完成活动数 / 已开始活动数；
+     * 只看当前活动节点，不需要扫描活动历史
+     */
+    private void recalculatePercentage(ProgressSnapshot snapshot) {
+        if (snapshot.isCompleted()) {
+            snapshot.setProgressPercentage(100);
+            return;
+        }
+
+        List<String> activeActivityIds = snapshot.getNodeStatusMap().entrySet().stream()
+                .filter(entry -> "active".equals(entry.getValue()))
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+        int percentage = processGraphCache.percentage(snapshot.getProcessDefinitionId(), activeActivityIds);
+        if (percentage >= 0) {
+            snapshot.setProgressPercentage(percentage);
+        } else if (snapshot.getActivityCount() == 0) {
+            snapshot.setProgressPercentage(0);
+        } else {
+            snapshot.setProgressPercentage(snapshot.getCompletedActivityCount() * 100 / snapshot.getActivityCount());
+        }
+    }
+
+    @Override
+    public boolean isFailOnException() {
+        // 快照只是读优化，维护失败不影响流程推进
+        return false;
+    }
+
+    @Override
+    public boolean isFireOnTransactionLifecycleEvent() {
+        return false;
+    }
+
+    @Override
+    public String getOnTransaction() {
+        return null;
+    }
+}
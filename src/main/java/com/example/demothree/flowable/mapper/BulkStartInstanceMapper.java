@@ -0,0 +1,29 @@
+package com.example.demothree.flowable.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.example.demothree.flowable.entity.BulkStartInstance;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * <p>
+ * 批量发起任务已发起流程实例 Mapper 接口
+ * </p>
+ */
+@Mapper
+public interface BulkStartInstanceMapper extends BaseMapper<BulkStartInstance> {
+
+    /**
+     * 批量插入
+     */
+    int insertBatch(@Param("instances") Collection<BulkStartInstance> instances);
+
+    /**
+     * 查询该任务已发起过的业务键
+     */
+    List<String> selectStartedBusinessKeys(@Param("jobId") Long jobId,
+                                           @Param("businessKeys") Collection<String> businessKeys);
+}
@@ -0,0 +1,15 @@
+package com.example.demothree.flowable.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.example.demothree.flowable.entity.BulkStartJob;
+import org.apache.ibatis.annotations.Mapper;
+
+/**
+ * <p>
+ * 批量发起流程任务 Mapper 接口
+ * </p>
+ */
+@Mapper
+public interface BulkStartJobMapper extends BaseMapper<BulkStartJob> {
+
+}
@@ -0,0 +1,32 @@
+package com.example.demothree.flowable.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.example.demothree.flowable.entity.CleanupJob;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.Map;
+
+/**
+ * <p>
+ * 旧版本部署清理任务 Mapper 接口
+ * </p>
+ */
+@Mapper
+public interface CleanupJobMapper extends BaseMapper<CleanupJob> {
+
+    /**
+     * 估算删除这些流程定义及其部署时级联删除的各表行数
+     */
+    Map<String, Object> selectDeletionEstimate(@Param("processDefinitionIds") Collection<String> processDefinitionIds,
+                                               @Param("deploymentIds") Collection<String> deploymentIds);
+
+    /**
+     * 认领未完成的任务：无人执行、本节点执行过或执行节点超过 staleBefore 没有记录进度时，
+     * 写入 owner 并置为 RUNNING，返回 1 表示认领成功
+     */
+    int claim(@Param("id") Long id, @Param("owner") String owner, @Param("now") Date now,
+              @Param("staleBefore") Date staleBefore);
+}
@@ -0,0 +1,22 @@
+package com.example.demothree.flowable.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.example.demothree.flowable.entity.DeploymentChecksum;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.Collection;
+
+/**
+ * <p>
+ * 流程部署校验和 Mapper 接口
+ * </p>
+ */
+@Mapper
+public interface DeploymentChecksumMapper extends BaseMapper<DeploymentChecksum> {
+
+    /**
+     * 批量插入或更新校验和
+     */
+    int upsertBatch(@Param("checksums") Collection<DeploymentChecksum> checksums);
+}
@@ -0,0 +1,38 @@
+package com.example.demothree.flowable.mapper;
+
+import com.example.demothree.flowable.dto.ActivityStatusRow;
+import com.example.demothree.flowable.dto.ProcessDefinitionBrief;
+import com.example.demothree.flowable.dto.ProcessTaskCount;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 流程进度批量查询 Mapper（直接查询 Flowable ACT_* 表）
+ */
+@Mapper
+public interface ProcessProgressMapper {
+
+    /**
+     * 按流程实例分组统计任务总数与已完成数
+     */
+    List<ProcessTaskCount> selectTaskCounts(@Param("processInstanceIds") Collection<String> processInstanceIds);
+
+    /**
+     * 批量查询流程定义基础信息
+     */
+    List<ProcessDefinitionBrief> selectDefinitions(@Param("processDefinitionIds") Collection<String> processDefinitionIds);
+
+    /**
+     * 查询流程实例进度版本信息（各历史表的行数与最后更新时间），流程实例不存在时返回 null
+     */
+    Map<String, Object> selectProgressVersion(@Param("processInstanceId") String processInstanceId);
+
+    /**
+     * 批量查询活动节点状态，按流程实例、开始时间排序
+     */
+    List<ActivityStatusRow> selectActivityStatuses(@Param("processInstanceIds") Collection<String> processInstanceIds);
+}
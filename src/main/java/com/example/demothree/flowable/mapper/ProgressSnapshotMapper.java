@@ -0,0 +1,19 @@
+package com.example.demothree.flowable.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.example.demothree.flowable.entity.ProgressSnapshot;
+import org.apache.ibatis.annotations.Mapper;
+
+/**
+ * <p>
+ * 流程进度快照 Mapper 接口
+ * </p>
+ */
+@Mapper
+public interface ProgressSnapshotMapper extends BaseMapper<ProgressSnapshot> {
+
+    /**
+     * 按期望修订号更新快照，修订号已被其他事务改变时不更新（返回 0）
+     */
+    int updateIfRevision(ProgressSnapshot snapshot);
+}
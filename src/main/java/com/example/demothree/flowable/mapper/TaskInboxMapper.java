@@ -0,0 +1,55 @@
+package com.example.demothree.flowable.mapper;
+
+import com.example.demothree.flowable.dto.TaskInboxItem;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * 待办任务查询 Mapper（直接查询 Flowable ACT_RU_* 表）
+ * <p>
+ * assignee、candidateUser、candidateGroup 三个条件只传一个，按创建时间、任务ID倒序键集分页；
+ * candidateGroups 为候选人所在组，与 candidateUser 一起传入时用户本人或所在组为候选均可。
+ */
+@Mapper
+public interface TaskInboxMapper {
+
+    /**
+     * 键集分页查询待办，cursorTime 为空时查询第一页
+     */
+    List<TaskInboxItem> selectInboxPage(@Param("assignee") String assignee,
+                                        @Param("candidateUser") String candidateUser,
+                                        @Param("candidateGroups") Collection<String> candidateGroups,
+                                        @Param("candidateGroup") String candidateGroup,
+                                        @Param("cursorTime") Date cursorTime,
+                                        @Param("cursorId") String cursorId,
+                                        @Param("limit") int limit);
+
+    /**
+     * 统计待办总数
+     */
+    long countInbox(@Param("assignee") String assignee,
+                    @Param("candidateUser") String candidateUser,
+                    @Param("candidateGroups") Collection<String> candidateGroups,
+                    @Param("candidateGroup") String candidateGroup);
+
+    /**
+     * "我的工作"：分配给用户，或用户/用户所在组为候选的未认领任务，一次查询合并，
+     * 按优先级、创建时间、任务ID倒序键集分页，cursorId 为空时查询第一页
+     */
+    List<TaskInboxItem> selectMyWorkPage(@Param("userId") String userId,
+                                         @Param("groupIds") Collection<String> groupIds,
+                                         @Param("cursorPriority") Integer cursorPriority,
+                                         @Param("cursorTime") Date cursorTime,
+                                         @Param("cursorId") String cursorId,
+                                         @Param("limit") int limit);
+
+    /**
+     * 统计"我的工作"总数
+     */
+    long countMyWork(@Param("userId") String userId,
+                     @Param("groupIds") Collection<String> groupIds);
+}
@@ -1,15 +1,28 @@
 package com.example.demothree.flowable.service;
 
+import com.example.demothree.flowable.dto.DeploymentOutcome;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.flowable.engine.RepositoryService;
 import org.flowable.engine.repository.Deployment;
 import org.flowable.engine.repository.ProcessDefinition;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StopWatch;
 
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 @Slf4j
 @Service
@@ -18,6 +31,8 @@ public class AsyncProcessDeploymentService {
 
     private final RepositoryService repositoryService;
     private final SmartProcessDeploymentService smartProcessDeploymentService;
+    @Qualifier("bulkOperationExecutor")
+    private final Executor bulkOperationExecutor;
 
     /**
      * 异步部署所有BPMN流程文件
@@ -61,6 +76,50 @@ public class AsyncProcessDeploymentService {
         }
     }
 
+    /**
+     * 批量部署多个流程文件
+     * <p>
+     * 启动 parallelism 个工作任务从同一队列中依次取文件部署，并发数不超过 parallelism；
+     * 超时后不再开始新的文件，未完成的文件标记为 TIMEOUT。结果按请求顺序返回。
+     */
+    public List<DeploymentOutcome> deployProcessesBulk(List<String> processFileNames, int parallelism, long timeoutMillis) {
+        List<String> fileNames = new ArrayList<>(new LinkedHashSet<>(processFileNames));
+        Queue<String> queue = new ConcurrentLinkedQueue<>(fileNames);
+        Map<String, DeploymentOutcome> outcomes = new ConcurrentHashMap<>();
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+
+        int workers = Math.max(1, Math.min(parallelism, fileNames.size()));
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[workers];
+        for (int i = 0; i < workers; i++) {
+            futures[i] = CompletableFuture.runAsync(() -> {
+                String fileName;
+                while (System.currentTimeMillis() < deadline && (fileName = queue.poll()) != null) {
+                    outcomes.put(fileName, smartProcessDeploymentService.deployProcessWithOutcome(fileName));
+                }
+            }, bulkOperationExecutor);
+        }
+
+        try {
+            CompletableFuture.allOf(futures).get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            log.warn("⏱️ 批量部署超时（{} ms），已完成 {}/{}", timeoutMillis, outcomes.size(), fileNames.size());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            log.error("❌ 批量部署异常", e.getCause());
+        }
+
+        List<DeploymentOutcome> result = new ArrayList<>(fileNames.size());
+        for (String fileName : fileNames) {
+            DeploymentOutcome outcome = outcomes.get(fileName);
+            result.add(outcome != null ? outcome : new DeploymentOutcome()
+                    .setFileName(fileName)
+                    .setStatus(DeploymentOutcome.STATUS_TIMEOUT)
+                    .setMessage("超时前未完成"));
+        }
+        return result;
+    }
+
     /**
      * 带回调的异步部署
      */
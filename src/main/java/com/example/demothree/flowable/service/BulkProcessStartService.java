@@ -0,0 +1,362 @@
+package com.example.demothree.flowable.service;
+
+import cn.hutool.core.util.StrUtil;
+import com.example.demothree.config.WorkflowProperties;
+import com.example.demothree.flowable.dto.BulkStartRecord;
+import com.example.demothree.flowable.entity.BulkStartInstance;
+import com.example.demothree.flowable.entity.BulkStartJob;
+import com.example.demothree.flowable.mapper.BulkStartInstanceMapper;
+import com.example.demothree.flowable.mapper.BulkStartJobMapper;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.flowable.common.engine.impl.interceptor.Command;
+import org.flowable.engine.ManagementService;
+import org.flowable.engine.RepositoryService;
+import org.flowable.engine.RuntimeService;
+import org.flowable.engine.runtime.ProcessInstance;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 批量发起流程
+ * <p>
+ * 逐行读取 NDJSON 记录流，按 chunkSize 分批，每批在一个引擎命令（一个事务）中发起，
+ * 同批的实例、执行、任务等记录一次刷新、批量插入。同时提交的批次数受信号量限制，
+ * 达到上限时暂停读取请求体，形成背压。
+ * <p>
+ * 每批完成后记录连续提交完成的记录数（watermark）与计数；中断后重新提交同一记录流，
+ * watermark 之前的记录直接跳过，之后的记录按本任务已发起的业务键去重后再发起。
+ * 已发起的实例与发起在同一事务中记入 wf_bulk_start_instance，去重不依赖历史表，也不受其他来源的实例影响。
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BulkProcessStartService {
+
+    private final RuntimeService runtimeService;
+    private final RepositoryService repositoryService;
+    private final ManagementService managementService;
+    private final BulkStartJobMapper bulkStartJobMapper;
+    private final BulkStartInstanceMapper bulkStartInstanceMapper;
+    private final WorkflowProperties workflowProperties;
+    private final ObjectMapper objectMapper;
+    @Qualifier("bulkOperationExecutor")
+    private final Executor bulkOperationExecutor;
+
+    /**
+     * 正在读取记录流的任务，同一任务同时只允许一个请求
+     */
+    private final Set<Long> runningJobs = ConcurrentHashMap.newKeySet();
+
+    /**
+     * 创建批量发起任务
+     */
+    public BulkStartJob createJob(String processKey) {
+        long definitions = repositoryService.createProcessDefinitionQuery()
+                .processDefinitionKey(processKey)
+                .count();
+        if (definitions == 0) {
+            throw new RuntimeException("流程定义不存在: " + processKey);
+        }
+
+        Date now = new Date();
+        BulkStartJob job = new BulkStartJob()
+                .setProcessKey(processKey)
+                .setStatus(BulkStartJob.STATUS_PENDING)
+                .setWatermark(0L)
+                .setReadCount(0L)
+                .setStartedCount(0L)
+                .setSkippedCount(0L)
+                .setFailedCount(0L)
+                .setThroughput(0D)
+                .setCreateTime(now)
+                .setUpdateTime(now);
+        bulkStartJobMapper.insert(job);
+        return job;
+    }
+
+    public BulkStartJob getJob(Long jobId) {
+        BulkStartJob job = bulkStartJobMapper.selectById(jobId);
+        if (job == null) {
+            throw new RuntimeException("批量发起任务不存在: " + jobId);
+        }
+        return job;
+    }
+
+    /**
+     * 读取记录流并发起流程，读完并提交全部批次后返回任务
+     */
+    public BulkStartJob run(Long jobId, InputStream records) {
+        BulkStartJob job = getJob(jobId);
+        if (BulkStartJob.STATUS_COMPLETED.equals(job.getStatus())) {
+            throw new RuntimeException("批量发起任务已完成: " + jobId);
+        }
+        if (!runningJobs.add(jobId)) {
+            throw new RuntimeException("批量发起任务正在执行: " + jobId);
+        }
+        try {
+            new BulkStartRun(job).execute(records);
+        } finally {
+            runningJobs.remove(jobId);
+        }
+        return getJob(jobId);
+    }
+
+    /**
+     * 一次记录流的执行过程
+     */
+    private final class BulkStartRun {
+
+        private final BulkStartJob job;
+        private final long resumeFrom;
+        private final boolean deduplicate;
+        private final int chunkSize;
+        private final int parallelism;
+        private final Semaphore inFlight;
+
+        /**
+         * 已完成但前面还有未完成批次的批次：批次序号 -> 批次结束位置
+         */
+        private final Map<Long, Long> completedChunks = new HashMap<>();
+        private long nextChunkToCommit;
+        private long processedThisRun;
+        /**
+         * 批次执行中的意外异常，出现后停止读取，任务记为失败
+         */
+        private volatile String chunkFailure;
+        private final long startNanos = System.nanoTime();
+
+        BulkStartRun(BulkStartJob job) {
+            this.job = job;
+            this.resumeFrom = job.getWatermark();
+            // 之前执行过（可能有批次在 watermark 之后已提交），需要按业务键去重
+            this.deduplicate = !BulkStartJob.STATUS_PENDING.equals(job.getStatus());
+            WorkflowProperties.BulkStart config = workflowProperties.getBulkStart();
+            this.chunkSize = Math.max(1, config.getChunkSize());
+            this.parallelism = Math.max(1, config.getParallelism());
+            this.inFlight = new Semaphore(parallelism);
+        }
+
+        void execute(InputStream records) {
+            checkpoint(job.setStatus(BulkStartJob.STATUS_RUNNING).setErrorMessage(null));
+            log.info("🚀 批量发起 #{} 开始: {}，从第 {} 条记录之后继续", job.getId(), job.getProcessKey(), resumeFrom);
+
+            long recordIndex = 0;
+            long chunkSeq = 0;
+            List<ParsedRecord> chunk = new ArrayList<>(chunkSize);
+            String failure = null;
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(records, StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null && chunkFailure == null) {
+                    if (StrUtil.isBlank(line)) {
+                        continue;
+                    }
+                    long index = recordIndex++;
+                    if (index < resumeFrom) {
+                        continue;
+                    }
+                    chunk.add(parse(line, index));
+                    if (chunk.size() >= chunkSize) {
+                        submit(chunkSeq++, chunk, recordIndex);
+                        chunk = new ArrayList<>(chunkSize);
+                    }
+                }
+                if (!chunk.isEmpty() && chunkFailure == null) {
+                    submit(chunkSeq, chunk, recordIndex);
+                }
+            } catch (IOException e) {
+                failure = "记录流读取中断: " + e.getMessage();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failure = "批量发起被中断";
+            }
+
+            // 等待已提交的批次全部完成
+            inFlight.acquireUninterruptibly(parallelism);
+            if (failure == null) {
+                failure = chunkFailure;
+            }
+            synchronized (this) {
+                job.setReadCount(Math.max(job.getReadCount(), recordIndex));
+                if (failure != null) {
+                    log.warn("⚠️ 批量发起 #{} 中断于第 {} 条记录: {}", job.getId(), job.getWatermark(), failure);
+                    checkpoint(job.setStatus(BulkStartJob.STATUS_FAILED).setErrorMessage(failure));
+                } else {
+                    checkpoint(job.setStatus(BulkStartJob.STATUS_COMPLETED));
+                    log.info("✅ 批量发起 #{} 完成: 发起 {}，跳过 {}，失败 {}，{} 条/秒", job.getId(),
+                            job.getStartedCount(), job.getSkippedCount(), job.getFailedCount(),
+                            String.format("%.1f", job.getThroughput()));
+                }
+            }
+        }
+
+        private ParsedRecord parse(String line, long index) {
+            try {
+                BulkStartRecord record = objectMapper.readValue(line, BulkStartRecord.class);
+                if (StrUtil.isBlank(record.getBusinessKey())) {
+                    return new ParsedRecord(index, null, null, "缺少业务键");
+                }
+                return new ParsedRecord(index, record.getBusinessKey(), record.getVariables(), null);
+            } catch (IOException e) {
+                return new ParsedRecord(index, null, null, "记录格式错误: " + e.getMessage());
+            }
+        }
+
+        /**
+         * 提交一个批次，同时执行的批次达到上限时阻塞读取线程
+         */
+        private void submit(long chunkSeq, List<ParsedRecord> chunk, long chunkEnd) throws InterruptedException {
+            inFlight.acquire();
+            try {
+                CompletableFuture.runAsync(() -> {
+                    try {
+                        startChunk(chunkSeq, chunk, chunkEnd);
+                    } catch (RuntimeException e) {
+                        // 批次未记入 watermark，续跑时重新处理
+                        log.error("❌ 批量发起 #{} 批次 {} 执行失败", job.getId(), chunkSeq, e);
+                        chunkFailure = "批次执行失败（第 " + (chunk.get(0).index() + 1) + " 条记录起）: " + e.getMessage();
+                    } finally {
+                        inFlight.release();
+                    }
+                }, bulkOperationExecutor);
+            } catch (RuntimeException e) {
+                inFlight.release();
+                throw e;
+            }
+        }
+
+        private void startChunk(long chunkSeq, List<ParsedRecord> chunk, long chunkEnd) {
+            ChunkResult result = new ChunkResult();
+            List<ParsedRecord> startable = new ArrayList<>(chunk.size());
+            for (ParsedRecord record : chunk) {
+                if (record.error() != null) {
+                    result.fail(record, record.error());
+                } else {
+                    startable.add(record);
+                }
+            }
+
+            if (deduplicate && !startable.isEmpty()) {
+                try {
+                    Set<String> existing = new HashSet<>(bulkStartInstanceMapper.selectStartedBusinessKeys(
+                            job.getId(), startable.stream().map(ParsedRecord::businessKey).toList()));
+                    int before = startable.size();
+                    startable.removeIf(record -> existing.contains(record.businessKey()));
+                    result.skipped += before - startable.size();
+                } catch (RuntimeException e) {
+                    // 无法确认是否已发起，不冒重复发起的风险
+                    startable.forEach(record -> result.fail(record, "业务键去重查询失败: " + e.getMessage()));
+                    startable.clear();
+                }
+            }
+
+            try {
+                startAll(startable);
+                result.started += startable.size();
+            } catch (RuntimeException e) {
+                log.warn("批量发起 #{} 批次回滚，逐条重试 {} 条: {}", job.getId(), startable.size(), e.getMessage());
+                for (ParsedRecord record : startable) {
+                    try {
+                        startAll(List.of(record));
+                        result.started++;
+                    } catch (RuntimeException single) {
+                        result.fail(record, single.getMessage());
+                    }
+                }
+            }
+            onChunkDone(chunkSeq, chunkEnd, chunk.size(), result);
+        }
+
+        /**
+         * 在同一个引擎命令中发起整批实例：共享命令上下文，结束时一次刷新、批量插入；
+         * 发起记录在同一事务中写入，回滚时一并撤销
+         */
+        private void startAll(List<ParsedRecord> records) {
+            if (records.isEmpty()) {
+                return;
+            }
+            managementService.executeCommand((Command<Void>) commandContext -> {
+                Date now = new Date();
+                List<BulkStartInstance> instances = new ArrayList<>(records.size());
+                for (ParsedRecord record : records) {
+                    ProcessInstance processInstance = runtimeService.startProcessInstanceByKey(
+                            job.getProcessKey(), record.businessKey(), record.variables());
+                    instances.add(new BulkStartInstance()
+                            .setJobId(job.getId())
+                            .setBusinessKey(record.businessKey())
+                            .setProcessInstanceId(processInstance.getId())
+                            .setCreateTime(now));
+                }
+                bulkStartInstanceMapper.insertBatch(instances);
+                return null;
+            });
+        }
+
+        /**
+         * 汇总批次结果，按批次顺序推进 watermark 并记录进度
+         */
+        private synchronized void onChunkDone(long chunkSeq, long chunkEnd, int size, ChunkResult result) {
+            job.setStartedCount(job.getStartedCount() + result.started)
+                    .setSkippedCount(job.getSkippedCount() + result.skipped)
+                    .setFailedCount(job.getFailedCount() + result.failed);
+            if (result.lastError != null) {
+                job.setErrorMessage(result.lastError);
+            }
+
+            completedChunks.put(chunkSeq, chunkEnd);
+            while (completedChunks.containsKey(nextChunkToCommit)) {
+                job.setWatermark(completedChunks.remove(nextChunkToCommit));
+                nextChunkToCommit++;
+            }
+            job.setReadCount(Math.max(job.getReadCount(), chunkEnd));
+
+            processedThisRun += size;
+            double seconds = (System.nanoTime() - startNanos) / (double) TimeUnit.SECONDS.toNanos(1);
+            job.setThroughput(seconds > 0 ? processedThisRun / seconds : 0D);
+            checkpoint(job);
+            log.debug("批量发起 #{}: 已提交 {} 条，发起 {}，失败 {}", job.getId(), job.getWatermark(),
+                    job.getStartedCount(), job.getFailedCount());
+        }
+    }
+
+    private void checkpoint(BulkStartJob job) {
+        bulkStartJobMapper.updateById(job.setUpdateTime(new Date()));
+    }
+
+    private record ParsedRecord(long index, String businessKey, Map<String, Object> variables, String error) {
+    }
+
+    private static final class ChunkResult {
+        private int started;
+        private int skipped;
+        private int failed;
+        private String lastError;
+
+        void fail(ParsedRecord record, String message) {
+            failed++;
+            String error = "第 " + (record.index() + 1) + " 条记录" + (record.businessKey() != null
+                    ? "（" + record.businessKey() + "）" : "") + ": " + message;
+            lastError = error.length() > 1000 ? error.substring(0, 1000) : error;
+            log.warn("批量发起失败 - {}", error);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.demothree.flowable.service;
+
+import cn.hutool.core.collection.CollUtil;
+import cn.hutool.core.util.StrUtil;
+import com.example.demothree.config.WorkflowProperties;
+import com.example.demothree.flowable.dto.BulkTaskItem;
+import com.example.demothree.flowable.dto.TaskOperationResult;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.flowable.engine.TaskService;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * 批量认领/办理任务
+ * <p>
+ * 任务按 chunkSize 分批，各批在批量线程池中并行执行，每批一个事务；
+ * 某批失败时整批回滚，再逐个任务单独提交，单个任务失败不影响其他任务。结果按请求顺序返回。
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BulkTaskService {
+
+    private final TaskService taskService;
+    private final PlatformTransactionManager transactionManager;
+    private final WorkflowProperties workflowProperties;
+    @Qualifier("bulkOperationExecutor")
+    private final Executor bulkOperationExecutor;
+
+    /**
+     * 批量认领任务
+     */
+    public List<TaskOperationResult> claimTasks(List<String> taskIds, String userId) {
+        if (StrUtil.isBlank(userId)) {
+            throw new RuntimeException("认领人不能为空");
+        }
+        List<BulkTaskItem> items = new ArrayList<>(taskIds.size());
+        for (String taskId : taskIds) {
+            BulkTaskItem item = new BulkTaskItem();
+            item.setTaskId(taskId);
+            items.add(item);
+        }
+        return execute(items, item -> taskService.claim(item.getTaskId(), userId));
+    }
+
+    /**
+     * 批量办理任务，各任务可带各自的变量
+     */
+    public List<TaskOperationResult> completeTasks(List<BulkTaskItem> items) {
+        return execute(items, item -> {
+            if (CollUtil.isEmpty(item.getVariables())) {
+                taskService.complete(item.getTaskId());
+            } else {
+                taskService.complete(item.getTaskId(), item.getVariables());
+            }
+        });
+    }
+
+    private List<TaskOperationResult> execute(List<BulkTaskItem> items, Consumer<BulkTaskItem> operation) {
+        WorkflowProperties.BulkTask config = workflowProperties.getBulkTask();
+        if (items.size() > config.getMaxTasks()) {
+            throw new RuntimeException("单次最多处理 " + config.getMaxTasks() + " 个任务");
+        }
+
+        // 同一任务只处理一次，以第一次出现为准
+        Map<String, BulkTaskItem> unique = new LinkedHashMap<>();
+        for (BulkTaskItem item : items) {
+            if (StrUtil.isBlank(item.getTaskId())) {
+                throw new RuntimeException("任务ID不能为空");
+            }
+            unique.putIfAbsent(item.getTaskId(), item);
+        }
+
+        List<List<BulkTaskItem>> chunks = CollUtil.split(unique.values(), Math.max(1, config.getChunkSize()));
+        List<CompletableFuture<List<TaskOperationResult>>> futures = new ArrayList<>(chunks.size());
+        for (List<BulkTaskItem> chunk : chunks) {
+            futures.add(CompletableFuture.supplyAsync(() -> executeChunk(chunk, operation), bulkOperationExecutor));
+        }
+
+        return futures.stream()
+                .map(CompletableFuture::join)
+                .flatMap(List::stream)
+                .toList();
+    }
+
+    /**
+     * 整批在一个事务中提交，失败时逐个任务单独提交
+     */
+    private List<TaskOperationResult> executeChunk(List<BulkTaskItem> chunk, Consumer<BulkTaskItem> operation) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        try {
+            transactionTemplate.executeWithoutResult(status -> chunk.forEach(operation));
+            return chunk.stream()
+                    .map(item -> new TaskOperationResult().setTaskId(item.getTaskId()).setSuccess(true))
+                    .toList();
+        } catch (RuntimeException e) {
+            log.warn("批量任务事务回滚，逐个重试 {} 个任务: {}", chunk.size(), e.getMessage());
+        }
+
+        Function<BulkTaskItem, TaskOperationResult> single = item -> {
+            TaskOperationResult result = new TaskOperationResult().setTaskId(item.getTaskId());
+            try {
+                transactionTemplate.executeWithoutResult(status -> operation.accept(item));
+                return result.setSuccess(true);
+            } catch (RuntimeException e) {
+                log.warn("任务处理失败: {} - {}", item.getTaskId(), e.getMessage());
+                return result.setSuccess(false).setMessage(e.getMessage());
+            }
+        };
+        return chunk.stream().map(single).toList();
+    }
+}
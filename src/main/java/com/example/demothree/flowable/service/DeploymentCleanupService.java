@@ -0,0 +1,288 @@
+package com.example.demothree.flowable.service;
+
+import cn.hutool.core.net.NetUtil;
+import cn.hutool.core.util.StrUtil;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
+import com.example.demothree.config.WorkflowProperties;
+import com.example.demothree.flowable.cache.ProcessDefinitionCache;
+import com.example.demothree.flowable.cache.ProcessGraphCache;
+import com.example.demothree.flowable.entity.CleanupJob;
+import com.example.demothree.flowable.mapper.CleanupJobMapper;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.flowable.engine.RepositoryService;
+import org.flowable.engine.repository.ProcessDefinition;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * 旧版本部署清理
+ * <p>
+ * 清理在后台线程中按版本号升序分批执行，删除速率受限；每批结束后记录已处理到的版本号，
+ * 应用重启后未完成的任务从该版本继续。试运行只统计可删除的流程定义数与级联删除会影响的行数，不做删除。
+ * 任务执行前先按节点认领（条件更新 owner），多个节点同时续跑时只有认领成功的节点执行；
+ * 其他节点的任务超过 claim-timeout-seconds 没有记录进度时才可被认领。
+ * 启动时合并部署的部署中包含多个流程，只有其中每个流程都超出各自保留的版本数时才删除该部署。
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DeploymentCleanupService {
+
+    private static final TypeReference<LinkedHashMap<String, Long>> ESTIMATE_TYPE = new TypeReference<>() {
+    };
+
+    private final RepositoryService repositoryService;
+    private final CleanupJobMapper cleanupJobMapper;
+    private final ProcessDefinitionCache definitionCache;
+    private final ProcessGraphCache processGraphCache;
+    private final WorkflowProperties workflowProperties;
+    private final ObjectMapper objectMapper;
+    @Qualifier("deploymentCleanupExecutor")
+    private final Executor deploymentCleanupExecutor;
+
+    private String nodeId;
+
+    @PostConstruct
+    public void init() {
+        String configured = workflowProperties.getCleanup().getNodeId();
+        nodeId = StrUtil.isNotBlank(configured) ? configured : NetUtil.getLocalHostName();
+    }
+
+    /**
+     * 提交清理任务（保留最近 keepVersions 个版本），立即返回任务
+     */
+    public CleanupJob submit(String processKey, int keepVersions, boolean dryRun) {
+        if (keepVersions < 1) {
+            throw new RuntimeException("至少保留1个版本");
+        }
+
+        int cutoffVersion = cutoffVersion(processKey, keepVersions);
+        long totalCount = cutoffVersion == 0 ? 0 : repositoryService.createProcessDefinitionQuery()
+                .processDefinitionKey(processKey)
+                .processDefinitionVersionLowerThan(cutoffVersion)
+                .count();
+
+        Date now = new Date();
+        CleanupJob job = new CleanupJob()
+                .setProcessKey(processKey)
+                .setKeepVersions(keepVersions)
+                .setCutoffVersion(cutoffVersion)
+                .setDryRun(dryRun)
+                .setStatus(totalCount == 0 ? CleanupJob.STATUS_COMPLETED : CleanupJob.STATUS_PENDING)
+                .setTotalCount((int) totalCount)
+                .setDeletedCount(0)
+                .setDeletableCount(0)
+                .setSkippedCount(0)
+                .setLastVersion(0)
+                .setEstimatedRows(0L)
+                .setCreateTime(now)
+                .setUpdateTime(now);
+        cleanupJobMapper.insert(job);
+
+        if (totalCount > 0) {
+            schedule(job.getId());
+        }
+        log.info("🧹 提交清理任务 #{}: {} 保留 {} 个版本，待处理 {} 个{}",
+                job.getId(), processKey, keepVersions, totalCount, dryRun ? "（试运行）" : "");
+        return job;
+    }
+
+    public CleanupJob getJob(Long jobId) {
+        CleanupJob job = cleanupJobMapper.selectById(jobId);
+        if (job == null) {
+            throw new RuntimeException("清理任务不存在: " + jobId);
+        }
+        return job;
+    }
+
+    /**
+     * 应用启动后继续未完成的清理任务，执行前认领，由其他节点执行中的任务会被跳过
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeUnfinishedJobs() {
+        try {
+            List<CleanupJob> jobs = cleanupJobMapper.selectList(new LambdaQueryWrapper<CleanupJob>()
+                    .in(CleanupJob::getStatus, CleanupJob.STATUS_PENDING, CleanupJob.STATUS_RUNNING)
+                    .orderByAsc(CleanupJob::getId));
+            for (CleanupJob job : jobs) {
+                log.info("🧹 尝试继续未完成的清理任务 #{}: {} 从版本 {} 之后开始", job.getId(), job.getProcessKey(), job.getLastVersion());
+                schedule(job.getId());
+            }
+        } catch (Exception e) {
+            log.warn("加载未完成的清理任务失败: " + e.getMessage());
+        }
+    }
+
+    private void schedule(Long jobId) {
+        deploymentCleanupExecutor.execute(() -> run(jobId));
+    }
+
+    private void run(Long jobId) {
+        Date now = new Date();
+        Date staleBefore = new Date(now.getTime()
+                - TimeUnit.SECONDS.toMillis(workflowProperties.getCleanup().getClaimTimeoutSeconds()));
+        if (cleanupJobMapper.claim(jobId, nodeId, now, staleBefore) == 0) {
+            log.info("🧹 清理任务 #{} 已完成或由其他节点执行，跳过", jobId);
+            return;
+        }
+        CleanupJob job = cleanupJobMapper.selectById(jobId);
+
+        int batchSize = Math.max(1, workflowProperties.getCleanup().getBatchSize());
+        double rate = workflowProperties.getCleanup().getDeletionsPerSecond();
+        long intervalNanos = rate > 0 ? (long) (TimeUnit.SECONDS.toNanos(1) / rate) : 0;
+        long nextDeletionAt = System.nanoTime();
+        Map<String, Long> estimate = readEstimate(job);
+        Map<String, Integer> cutoffs = new HashMap<>();
+        cutoffs.put(job.getProcessKey(), job.getCutoffVersion());
+
+        try {
+            while (true) {
+                List<ProcessDefinition> batch = repositoryService.createProcessDefinitionQuery()
+                        .processDefinitionKey(job.getProcessKey())
+                        .processDefinitionVersionLowerThan(job.getCutoffVersion())
+                        .processDefinitionVersionGreaterThan(job.getLastVersion())
+                        .orderByProcessDefinitionVersion().asc()
+                        .listPage(0, batchSize);
+                if (batch.isEmpty()) {
+                    break;
+                }
+
+                // 部署ID -> 部署中的全部流程定义（删除部署会一并删除）
+                Map<String, List<ProcessDefinition>> deletable = new LinkedHashMap<>();
+                int deletableCount = 0;
+                for (ProcessDefinition definition : batch) {
+                    List<ProcessDefinition> deployed = repositoryService.createProcessDefinitionQuery()
+                            .deploymentId(definition.getDeploymentId())
+                            .list();
+                    if (deployed.stream().allMatch(other -> isExpired(other, job.getKeepVersions(), cutoffs))) {
+                        deletable.put(definition.getDeploymentId(), deployed);
+                        deletableCount++;
+                    } else {
+                        // 共享部署中还有其他流程需要保留的版本，删除部署会连带删除它们，跳过
+                        log.info("⏭️  跳过共享部署中的旧版本: " + definition.getKey() + " v" + definition.getVersion());
+                        job.setSkippedCount(job.getSkippedCount() + 1);
+                    }
+                }
+
+                if (Boolean.TRUE.equals(job.getDryRun())) {
+                    addEstimate(estimate, deletable.values().stream().flatMap(List::stream).toList());
+                    job.setDeletableCount(job.getDeletableCount() + deletableCount);
+                } else {
+                    for (Map.Entry<String, List<ProcessDefinition>> entry : deletable.entrySet()) {
+                        nextDeletionAt = throttle(nextDeletionAt, intervalNanos);
+                        repositoryService.deleteDeployment(entry.getKey(), true);
+                        for (ProcessDefinition definition : entry.getValue()) {
+                            definitionCache.evictDefinition(definition.getId());
+                            processGraphCache.evict(definition.getId());
+                            log.info("🗑️  清理旧版本: " + definition.getKey() + " v" + definition.getVersion());
+                        }
+                    }
+                    job.setDeletedCount(job.getDeletedCount() + deletableCount);
+                }
+
+                job.setLastVersion(batch.get(batch.size() - 1).getVersion());
+                writeEstimate(job, estimate);
+                if (!checkpoint(job)) {
+                    log.warn("🧹 清理任务 #{} 已被其他节点认领，停止执行", job.getId());
+                    return;
+                }
+            }
+            checkpoint(job.setStatus(CleanupJob.STATUS_COMPLETED));
+            log.info("🧹 清理任务 #{} 完成: 删除 {} 个，试运行可删除 {} 个，跳过 {} 个",
+                    job.getId(), job.getDeletedCount(), job.getDeletableCount(), job.getSkippedCount());
+        } catch (InterruptedException e) {
+            // 应用关闭，保持 RUNNING 状态，下次启动继续
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.error("❌ 清理任务 #{} 失败", job.getId(), e);
+            String message = String.valueOf(e.getMessage());
+            checkpoint(job.setStatus(CleanupJob.STATUS_FAILED)
+                    .setErrorMessage(message.length() > 1000 ? message.substring(0, 1000) : message));
+        }
+    }
+
+    /**
+     * 保留的最旧版本号，比它更旧的都要清理；版本数不足时返回 0
+     */
+    private int cutoffVersion(String processKey, int keepVersions) {
+        List<ProcessDefinition> oldestKept = repositoryService.createProcessDefinitionQuery()
+                .processDefinitionKey(processKey)
+                .orderByProcessDefinitionVersion().desc()
+                .listPage(keepVersions - 1, 1);
+        return oldestKept.isEmpty() ? 0 : oldestKept.get(0).getVersion();
+    }
+
+    /**
+     * 流程定义是否已超出其流程保留的版本数，共享部署中的其他流程按同样的保留数计算
+     */
+    private boolean isExpired(ProcessDefinition definition, int keepVersions, Map<String, Integer> cutoffs) {
+        int cutoff = cutoffs.computeIfAbsent(definition.getKey(), key -> cutoffVersion(key, keepVersions));
+        return definition.getVersion() < cutoff;
+    }
+
+    /**
+     * 按固定间隔限速，返回下一次允许删除的时间
+     */
+    private long throttle(long nextDeletionAt, long intervalNanos) throws InterruptedException {
+        long waitNanos = nextDeletionAt - System.nanoTime();
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+        return Math.max(nextDeletionAt, System.nanoTime()) + intervalNanos;
+    }
+
+    private void addEstimate(Map<String, Long> estimate, List<ProcessDefinition> definitions) {
+        if (definitions.isEmpty()) {
+            return;
+        }
+        List<String> definitionIds = definitions.stream().map(ProcessDefinition::getId).collect(Collectors.toList());
+        Set<String> deploymentIds = definitions.stream().map(ProcessDefinition::getDeploymentId).collect(Collectors.toSet());
+        Map<String, Object> counts = cleanupJobMapper.selectDeletionEstimate(definitionIds, deploymentIds);
+        counts.forEach((table, count) -> estimate.merge(table, ((Number) count).longValue(), Long::sum));
+    }
+
+    private Map<String, Long> readEstimate(CleanupJob job) {
+        if (job.getEstimateDetail() == null) {
+            return new LinkedHashMap<>();
+        }
+        try {
+            return objectMapper.readValue(job.getEstimateDetail(), ESTIMATE_TYPE);
+        } catch (JsonProcessingException e) {
+            return new LinkedHashMap<>();
+        }
+    }
+
+    private void writeEstimate(CleanupJob job, Map<String, Long> estimate) {
+        if (estimate.isEmpty()) {
+            return;
+        }
+        try {
+            job.setEstimateDetail(objectMapper.writeValueAsString(estimate))
+                    .setEstimatedRows(estimate.values().stream().mapToLong(Long::longValue).sum());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 记录进度，只在本节点仍持有任务时更新；任务已被其他节点认领时返回 false
+     */
+    private boolean checkpoint(CleanupJob job) {
+        return cleanupJobMapper.update(job.setUpdateTime(new Date()), new LambdaUpdateWrapper<CleanupJob>()
+                .eq(CleanupJob::getId, job.getId())
+                .eq(CleanupJob::getOwner, nodeId)) > 0;
+    }
+}
@@ -1,6 +1,8 @@
 package com.example.demothree.flowable.service;
 
+import com.example.demothree.flowable.dto.KeysetPage;
 import com.example.demothree.flowable.dto.TaskDto;
+import com.example.demothree.flowable.dto.TaskInboxItem;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.flowable.engine.HistoryService;
@@ -13,7 +15,6 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 
@@ -26,6 +27,7 @@ public class LeaveProcessService {
     private final TaskService taskService;
     private final HistoryService historyService;
     private final WorkflowExecutionService  workflowService;
+    private final TaskInboxService taskInboxService;
 
     /**
      * 发起请假申请
@@ -94,11 +96,10 @@ public class LeaveProcessService {
     }
 
     /**
-     * 获取用户的待办任务
+     * 键集分页获取用户的待办任务
      */
-    public List<Task> getUserTasks(String userId) {
-        List<Task> userTasks = workflowService.getUserTasks(userId);
-        return userTasks;
+    public KeysetPage<TaskInboxItem> getUserTasks(String userId, String cursor, int size) {
+        return taskInboxService.getAssigneePage(userId, cursor, size);
     }
 
     /**
@@ -0,0 +1,134 @@
+package com.example.demothree.flowable.service;
+
+import com.example.demothree.config.WorkflowProperties;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 流程文件热部署（workflow.deploy.watch.enabled=true 时启用）
+ * <p>
+ * 监听流程文件目录，目录在防抖时间内没有新变化后，把期间变化过的文件逐个交给智能部署；
+ * 内容未改变的文件（如编辑器重复保存）由校验和比较跳过。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "workflow.deploy.watch", name = "enabled", havingValue = "true")
+public class ProcessFileWatcher {
+
+    private final SmartProcessDeploymentService smartDeploymentService;
+    private final WorkflowProperties workflowProperties;
+
+    private WatchService watchService;
+    private Path directory;
+    private Thread watcherThread;
+
+    @PostConstruct
+    public void start() throws IOException {
+        WorkflowProperties.Watch watch = workflowProperties.getDeploy().getWatch();
+        directory = Paths.get(watch.getDirectory()).toAbsolutePath().normalize();
+        if (!Files.isDirectory(directory)) {
+            log.warn("⚠️ 流程文件目录不存在，热部署未启动: " + directory);
+            return;
+        }
+
+        watchService = directory.getFileSystem().newWatchService();
+        directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+
+        watcherThread = new Thread(() -> watchLoop(watch.getDebounceMillis()), "Process-File-Watcher");
+        watcherThread.setDaemon(true);
+        watcherThread.start();
+        log.info("👀 流程文件热部署已启动，监听目录: " + directory);
+    }
+
+    @PreDestroy
+    public void stop() throws IOException {
+        if (watchService != null) {
+            watchService.close();
+        }
+    }
+
+    private void watchLoop(long debounceMillis) {
+        Set<Path> pending = new LinkedHashSet<>();
+        try {
+            while (true) {
+                // 有待部署文件时只等待防抖时间，超时说明这一批变化已结束
+                WatchKey key = pending.isEmpty()
+                        ? watchService.take()
+                        : watchService.poll(debounceMillis, TimeUnit.MILLISECONDS);
+                if (key == null) {
+                    deploy(pending);
+                    pending.clear();
+                    continue;
+                }
+
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                        // 事件丢失，整个目录交给智能部署比较
+                        addAllProcessFiles(pending);
+                    } else if (event.context() instanceof Path fileName && isProcessFile(fileName)) {
+                        pending.add(directory.resolve(fileName));
+                    }
+                }
+                if (!key.reset()) {
+                    log.warn("⚠️ 流程文件目录已不可访问，热部署停止: " + directory);
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            // 应用关闭
+        }
+    }
+
+    private void deploy(Set<Path> files) {
+        for (Path file : files) {
+            if (!Files.isRegularFile(file)) {
+                continue;
+            }
+            try {
+                log.info("🔄 检测到流程文件变化: " + file.getFileName());
+                smartDeploymentService.deployResourceSmart(new FileSystemResource(file));
+            } catch (Exception e) {
+                log.error("❌ 热部署失败: " + file.getFileName() + " - " + e.getMessage());
+            }
+        }
+    }
+
+    private void addAllProcessFiles(Set<Path> pending) {
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+            for (Path file : stream) {
+                if (isProcessFile(file.getFileName())) {
+                    pending.add(file);
+                }
+            }
+        } catch (IOException e) {
+            log.error("读取流程文件目录失败: " + e.getMessage());
+        }
+    }
+
+    private boolean isProcessFile(Path fileName) {
+        String name = fileName.toString();
+        return name.endsWith(".bpmn20.xml") || name.endsWith(".bpmn");
+    }
+}
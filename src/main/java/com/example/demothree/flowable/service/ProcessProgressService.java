@@ -1,20 +1,42 @@
 package com.example.demothree.flowable.service;
 
+import cn.hutool.core.collection.CollUtil;
+import com.example.demothree.flowable.cache.ProcessDefinitionCache;
+import com.example.demothree.flowable.cache.ProcessGraphCache;
+import com.example.demothree.flowable.cache.ProgressSnapshotStore;
+import com.example.demothree.flowable.dto.ActivityStatusRow;
+import com.example.demothree.flowable.dto.ActivityTimelineItem;
+import com.example.demothree.flowable.dto.CurrentTaskInfo;
+import com.example.demothree.flowable.dto.KeysetPage;
+import com.example.demothree.flowable.dto.PageCursor;
+import com.example.demothree.flowable.dto.ProcessDefinitionBrief;
+import com.example.demothree.flowable.dto.ProcessTaskCount;
+import com.example.demothree.flowable.dto.ProgressField;
+import com.example.demothree.flowable.dto.TaskTimelineItem;
+import com.example.demothree.flowable.dto.TimelineItem;
+import com.example.demothree.flowable.entity.ProgressSnapshot;
+import com.example.demothree.flowable.mapper.ProcessProgressMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.flowable.engine.HistoryService;
-import org.flowable.engine.RepositoryService;
 import org.flowable.engine.RuntimeService;
 import org.flowable.engine.TaskService;
 import org.flowable.engine.history.HistoricActivityInstance;
 import org.flowable.engine.history.HistoricProcessInstance;
-import org.flowable.engine.repository.ProcessDefinition;
-import org.flowable.engine.runtime.ProcessInstance;
+import org.flowable.engine.history.NativeHistoricProcessInstanceQuery;
 import org.flowable.task.api.Task;
 import org.flowable.task.api.history.HistoricTaskInstance;
+import org.flowable.variable.api.history.HistoricVariableInstanceQuery;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
 
+import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -22,85 +44,144 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class ProcessProgressService {
 
+    /**
+     * IN 查询单批最大参数个数
+     */
+    private static final int IN_CLAUSE_BATCH_SIZE = 500;
+
+    /**
+     * 分页查询单页最大条数
+     */
+    private static final int MAX_PAGE_SIZE = 500;
+
     private final RuntimeService runtimeService;
     private final HistoryService historyService;
     private final TaskService taskService;
-    private final RepositoryService repositoryService;
+    private final ProcessProgressMapper progressMapper;
+    private final ProcessDefinitionCache definitionCache;
+    private final ProgressSnapshotStore snapshotStore;
+    private final ProcessGraphCache processGraphCache;
+    @Qualifier("progressQueryExecutor")
+    private final Executor progressQueryExecutor;
 
     /**
-     * 获取流程进度详情（兼容已完成流程）
+     * 获取流程进度详情（兼容已完成流程），返回全部字段
      */
     public Map<String, Object> getProcessProgress(String processInstanceId) {
+        return getProcessProgress(processInstanceId, EnumSet.allOf(ProgressField.class), null);
+    }
+
+    /**
+     * 获取流程进度详情，只查询请求的字段
+     * <p>
+     * 命中进度快照时，基础信息、当前任务与进度百分比直接取自快照；未命中时按需重建并回写快照。
+     * 时间线与流程变量只在请求时查询，变量可限定名称。
+     *
+     * @param fields        需要返回的字段
+     * @param variableNames 需要返回的变量名，为空返回全部变量
+     */
+    public Map<String, Object> getProcessProgress(String processInstanceId, Set<ProgressField> fields,
+                                                  Collection<String> variableNames) {
         Map<String, Object> result = new LinkedHashMap<>();
 
-        // 首先检查历史记录中是否存在该流程实例
-        HistoricProcessInstance historicProcessInstance = historyService.createHistoricProcessInstanceQuery()
-                .processInstanceId(processInstanceId)
-                .singleResult();
+        ProgressSnapshot snapshot = snapshotStore.get(processInstanceId);
+        boolean snapshotHit = snapshot != null;
+        if (!snapshotHit) {
+            // 首先检查历史记录中是否存在该流程实例
+            HistoricProcessInstance historicProcessInstance = historyService.createHistoricProcessInstanceQuery()
+                    .processInstanceId(processInstanceId)
+                    .singleResult();
 
-        if (historicProcessInstance == null) {
-            throw new RuntimeException("流程实例不存在: " + processInstanceId);
+            if (historicProcessInstance == null) {
+                throw new RuntimeException("流程实例不存在: " + processInstanceId);
+            }
+            snapshot = newSnapshot(historicProcessInstance);
         }
 
-        // 检查流程是否仍在运行中
-        ProcessInstance processInstance = runtimeService.createProcessInstanceQuery()
-                .processInstanceId(processInstanceId)
-                .singleResult();
-
-        boolean isCompleted = historicProcessInstance.getEndTime() != null;
+        boolean isCompleted = snapshot.isCompleted();
+        boolean withTimeline = fields.contains(ProgressField.TIMELINE);
+        // 未命中快照时，当前任务与进度百分比需要由活动历史和当前任务重建
+        boolean rebuildSnapshot = !snapshotHit
+                && (fields.contains(ProgressField.PERCENTAGE) || fields.contains(ProgressField.CURRENT_TASKS));
 
         // 基础信息
         result.put("processInstanceId", processInstanceId);
-        result.put("processDefinitionId", historicProcessInstance.getProcessDefinitionId());
-        result.put("businessKey", historicProcessInstance.getBusinessKey());
-        result.put("status", isCompleted ? "COMPLETED" : "RUNNING");
-        result.put("startTime", historicProcessInstance.getStartTime());
-        result.put("endTime", historicProcessInstance.getEndTime());
-
-        // 获取流程定义信息
-        ProcessDefinition processDefinition = repositoryService.createProcessDefinitionQuery()
-                .processDefinitionId(historicProcessInstance.getProcessDefinitionId())
-                .singleResult();
-        result.put("processName", processDefinition != null ? processDefinition.getName() : "未知流程");
-
-        // 获取所有活动历史
-        List<HistoricActivityInstance> activities = historyService.createHistoricActivityInstanceQuery()
-                .processInstanceId(processInstanceId)
-                .orderByHistoricActivityInstanceStartTime()
-                .asc()
-                .list();
+        if (fields.contains(ProgressField.BASIC)) {
+            result.put("processDefinitionId", snapshot.getProcessDefinitionId());
+            result.put("businessKey", snapshot.getBusinessKey());
+        }
+        if (fields.contains(ProgressField.STATUS)) {
+            result.put("status", snapshot.getStatus());
+        }
+        if (fields.contains(ProgressField.BASIC)) {
+            result.put("startTime", snapshot.getStartTime());
+            result.put("endTime", snapshot.getEndTime());
 
-        // 获取所有任务历史
-        List<HistoricTaskInstance> taskHistories = historyService.createHistoricTaskInstanceQuery()
-                .processInstanceId(processInstanceId)
-                .orderByHistoricTaskInstanceStartTime()
-                .asc()
-                .list();
+            // 获取流程定义信息
+            ProcessDefinitionBrief processDefinition = definitionCache.getById(snapshot.getProcessDefinitionId());
+            result.put("processName", processDefinition != null ? processDefinition.getName() : "未知流程");
+        }
+
+        // 活动历史、任务历史、当前任务、流程变量互不依赖，按需并发查询
+        CompletableFuture<List<HistoricActivityInstance>> activitiesFuture = withTimeline || rebuildSnapshot
+                ? CompletableFuture.supplyAsync(() -> historyService.createHistoricActivityInstanceQuery()
+                        .processInstanceId(processInstanceId)
+                        .orderByHistoricActivityInstanceStartTime()
+                        .asc()
+                        .list(), progressQueryExecutor)
+                : CompletableFuture.completedFuture(Collections.emptyList());
+
+        CompletableFuture<List<HistoricTaskInstance>> tasksFuture = withTimeline
+                ? CompletableFuture.supplyAsync(() -> historyService.createHistoricTaskInstanceQuery()
+                        .processInstanceId(processInstanceId)
+                        .orderByHistoricTaskInstanceStartTime()
+                        .asc()
+                        .list(), progressQueryExecutor)
+                : CompletableFuture.completedFuture(Collections.emptyList());
+
+        // 当前任务（运行中且需要重建快照时才查询）
+        CompletableFuture<List<Task>> currentTasksFuture = isCompleted || !rebuildSnapshot
+                ? CompletableFuture.completedFuture(Collections.emptyList())
+                : CompletableFuture.supplyAsync(() -> taskService.createTaskQuery()
+                        .processInstanceId(processInstanceId)
+                        .list(), progressQueryExecutor);
+
+        // 流程变量 - 已完成流程从历史变量表中获取
+        CompletableFuture<Map<String, Object>> variablesFuture = fields.contains(ProgressField.VARIABLES)
+                ? CompletableFuture.supplyAsync(
+                        () -> getProcessVariables(processInstanceId, isCompleted, variableNames), progressQueryExecutor)
+                : null;
+
+        List<HistoricActivityInstance> activities = join(activitiesFuture);
 
         // 构建进度时间线
-        List<Map<String, Object>> timeline = buildTimeline(activities, taskHistories);
-        result.put("timeline", timeline);
+        if (withTimeline) {
+            List<TimelineItem> timeline = buildTimeline(activities, join(tasksFuture));
+            result.put("timeline", timeline);
+        }
 
-        // 当前任务（如果是运行中的流程）
-        if (!isCompleted && processInstance != null) {
-            List<Task> currentTasks = taskService.createTaskQuery()
-                    .processInstanceId(processInstanceId)
-                    .list();
-            result.put("currentTasks", formatCurrentTasks(currentTasks));
-        } else {
-            result.put("currentTasks", Collections.emptyList());
+        if (rebuildSnapshot) {
+            fillSnapshot(snapshot, activities, join(currentTasksFuture));
+            snapshotStore.save(snapshot);
+        }
+
+        if (fields.contains(ProgressField.CURRENT_TASKS)) {
+            result.put("currentTasks", snapshot.getCurrentTaskList());
         }
 
         // 进度百分比
-        result.put("progressPercentage", calculateProgressPercentage(activities, isCompleted));
+        if (fields.contains(ProgressField.PERCENTAGE)) {
+            result.put("progressPercentage", snapshot.getProgressPercentage());
+        }
 
-        // 流程变量 - 从历史变量表中获取
-        Map<String, Object> variables = getProcessVariables(processInstanceId, isCompleted);
-        result.put("processVariables", variables);
+        if (variablesFuture != null) {
+            result.put("processVariables", join(variablesFuture));
+        }
 
         // 添加持续时间信息
-        if (isCompleted && historicProcessInstance.getStartTime() != null && historicProcessInstance.getEndTime() != null) {
-            long duration = historicProcessInstance.getEndTime().getTime() - historicProcessInstance.getStartTime().getTime();
+        if (fields.contains(ProgressField.DURATION)
+                && isCompleted && snapshot.getStartTime() != null && snapshot.getEndTime() != null) {
+            long duration = snapshot.getEndTime().getTime() - snapshot.getStartTime().getTime();
             result.put("totalDuration", duration);
             result.put("totalDurationFormatted", formatDuration(duration));
         }
@@ -108,21 +189,77 @@ public class ProcessProgressService {
         return result;
     }
 
+    /**
+     * 获取流程进度版本号（用作 ETag），流程实例不存在时返回 null
+     * <p>
+     * 命中快照时取快照修订号与更新时间；否则只查询历史表的行数与最后更新时间，不加载明细。
+     */
+    public String getProgressVersion(String processInstanceId) {
+        ProgressSnapshot snapshot = snapshotStore.get(processInstanceId);
+        if (snapshot != null) {
+            long lastUpdated = snapshot.getLastUpdated() != null ? snapshot.getLastUpdated().getTime() : 0L;
+            return "s-" + snapshot.getRevision() + "-" + lastUpdated;
+        }
+
+        Map<String, Object> version = progressMapper.selectProgressVersion(processInstanceId);
+        if (version == null) {
+            return null;
+        }
+        return "h-" + DigestUtils.md5DigestAsHex(version.values().toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 由历史流程实例创建快照基础信息
+     */
+    private ProgressSnapshot newSnapshot(HistoricProcessInstance historicProcessInstance) {
+        return new ProgressSnapshot()
+                .setProcessInstanceId(historicProcessInstance.getId())
+                .setProcessDefinitionId(historicProcessInstance.getProcessDefinitionId())
+                .setBusinessKey(historicProcessInstance.getBusinessKey())
+                .setStartTime(historicProcessInstance.getStartTime())
+                .setEndTime(historicProcessInstance.getEndTime())
+                .setStatus(historicProcessInstance.getEndTime() != null ? "COMPLETED" : "RUNNING");
+    }
+
+    /**
+     * 用全量重建的结果补齐快照
+     */
+    private void fillSnapshot(ProgressSnapshot snapshot, List<HistoricActivityInstance> activities, List<Task> currentTasks) {
+        int completed = (int) activities.stream()
+                .filter(activity -> activity.getEndTime() != null)
+                .count();
+        snapshot.setActivityCount(activities.size());
+        snapshot.setCompletedActivityCount(completed);
+        snapshot.setNodeStatusMap(buildNodeStatus(activities));
+        snapshot.setCurrentTaskList(formatCurrentTasks(currentTasks));
+        snapshot.setProgressPercentage(calculateProgressPercentage(
+                snapshot.getProcessDefinitionId(), activities, snapshot.isCompleted()));
+    }
+
     /**
      * 获取流程变量（兼容已完成流程）
      */
-    private Map<String, Object> getProcessVariables(String processInstanceId, boolean isCompleted) {
+    private Map<String, Object> getProcessVariables(String processInstanceId, boolean isCompleted,
+                                                    Collection<String> variableNames) {
+        boolean filtered = variableNames != null && !variableNames.isEmpty();
         if (isCompleted) {
             // 从历史变量表获取
-            return historyService.createHistoricVariableInstanceQuery()
-                    .processInstanceId(processInstanceId)
-                    .list()
+            HistoricVariableInstanceQuery query = historyService.createHistoricVariableInstanceQuery()
+                    .processInstanceId(processInstanceId);
+            if (filtered && variableNames.size() == 1) {
+                query.variableName(variableNames.iterator().next());
+            }
+            return query.list()
                     .stream()
+                    .filter(instance -> !filtered || variableNames.contains(instance.getVariableName()))
                     .collect(Collectors.toMap(
                             instance -> instance.getVariableName(),
                             instance -> instance.getValue(),
                             (existing, replacement) -> existing
                     ));
+        } else if (filtered) {
+            // 只取指定变量
+            return runtimeService.getVariables(processInstanceId, variableNames);
         } else {
             // 从运行时变量表获取
             return runtimeService.getVariables(processInstanceId);
@@ -131,8 +268,13 @@ public class ProcessProgressService {
 
     /**
      * 计算进度百分比（兼容已完成流程）
+     * <p>
+     * 优先按预编译流程图中当前活动节点的剩余路径计算；流程图无法识别当前节点时，
+     * 退回到 已完成活动数 / 已开始活动数。
      */
-    private int calculateProgressPercentage(List<HistoricActivityInstance> activities, boolean isCompleted) {
+    private int calculateProgressPercentage(String processDefinitionId,
+                                            List<HistoricActivityInstance> activities,
+                                            boolean isCompleted) {
         if (isCompleted) {
             return 100; // 已完成流程直接返回100%
         }
@@ -141,75 +283,75 @@ public class ProcessProgressService {
             return 0;
         }
 
-        long completed = activities.stream()
-                .filter(activity -> activity.getEndTime() != null)
-                .count();
+        List<String> activeActivityIds = activities.stream()
+                .filter(activity -> activity.getEndTime() == null)
+                .map(HistoricActivityInstance::getActivityId)
+                .collect(Collectors.toList());
+        int percentage = processGraphCache.percentage(processDefinitionId, activeActivityIds);
+        if (percentage >= 0) {
+            return percentage;
+        }
+
+        long completed = activities.size() - activeActivityIds.size();
 
         return (int) ((completed * 100) / activities.size());
     }
 
     /**
-     * 构建时间线
+     * 构建时间线：活动与任务均已按开始时间升序查询，线性归并即可，开始时间相同时活动在前
      */
-    private List<Map<String, Object>> buildTimeline(List<HistoricActivityInstance> activities,
-                                                    List<HistoricTaskInstance> taskHistories) {
-        List<Map<String, Object>> timeline = new ArrayList<>();
-
-        // 处理活动历史
-        for (HistoricActivityInstance activity : activities) {
-            Map<String, Object> item = new LinkedHashMap<>();
-            item.put("type", "ACTIVITY");
-            item.put("activityId", activity.getActivityId());
-            item.put("activityName", activity.getActivityName());
-            item.put("activityType", activity.getActivityType());
-            item.put("startTime", activity.getStartTime());
-            item.put("endTime", activity.getEndTime());
-            item.put("duration", activity.getDurationInMillis());
-            item.put("assignee", activity.getAssignee());
-            item.put("status", activity.getEndTime() != null ? "COMPLETED" : "RUNNING");
-
-            timeline.add(item);
+    private List<TimelineItem> buildTimeline(List<HistoricActivityInstance> activities,
+                                             List<HistoricTaskInstance> taskHistories) {
+        List<TimelineItem> timeline = new ArrayList<>(activities.size() + taskHistories.size());
+
+        int i = 0;
+        int j = 0;
+        while (i < activities.size() && j < taskHistories.size()) {
+            HistoricActivityInstance activity = activities.get(i);
+            HistoricTaskInstance task = taskHistories.get(j);
+            if (startTimeMillis(activity.getStartTime()) <= startTimeMillis(task.getStartTime())) {
+                timeline.add(ActivityTimelineItem.of(activity));
+                i++;
+            } else {
+                timeline.add(TaskTimelineItem.of(task));
+                j++;
+            }
         }
-
-        // 处理任务历史
-        for (HistoricTaskInstance task : taskHistories) {
-            Map<String, Object> item = new LinkedHashMap<>();
-            item.put("type", "TASK");
-            item.put("taskId", task.getId());
-            item.put("taskName", task.getName());
-            item.put("taskDefinitionKey", task.getTaskDefinitionKey());
-            item.put("assignee", task.getAssignee());
-            item.put("owner", task.getOwner());
-            item.put("startTime", task.getStartTime());
-            item.put("endTime", task.getEndTime());
-            item.put("duration", task.getDurationInMillis());
-            item.put("dueDate", task.getDueDate());
-            item.put("priority", task.getPriority());
-            item.put("status", task.getEndTime() != null ? "COMPLETED" : "RUNNING");
-
-            timeline.add(item);
+        while (i < activities.size()) {
+            timeline.add(ActivityTimelineItem.of(activities.get(i++)));
+        }
+        while (j < taskHistories.size()) {
+            timeline.add(TaskTimelineItem.of(taskHistories.get(j++)));
         }
-
-        // 按开始时间排序
-        timeline.sort(Comparator.comparing(item -> (Date) item.get("startTime")));
 
         return timeline;
     }
 
+    private long startTimeMillis(Date startTime) {
+        return startTime != null ? startTime.getTime() : Long.MAX_VALUE;
+    }
+
+    /**
+     * 等待并发查询结果，还原查询中抛出的原始异常
+     */
+    private <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
     /**
      * 格式化当前任务
      */
-    private List<Map<String, Object>> formatCurrentTasks(List<Task> tasks) {
-        return tasks.stream().map(task -> {
-            Map<String, Object> taskInfo = new LinkedHashMap<>();
-            taskInfo.put("taskId", task.getId());
-            taskInfo.put("taskName", task.getName());
-            taskInfo.put("assignee", task.getAssignee());
-            taskInfo.put("createTime", task.getCreateTime());
-            taskInfo.put("dueDate", task.getDueDate());
-            taskInfo.put("priority", task.getPriority());
-            return taskInfo;
-        }).collect(Collectors.toList());
+    private List<CurrentTaskInfo> formatCurrentTasks(List<Task> tasks) {
+        return tasks.stream()
+                .map(CurrentTaskInfo::of)
+                .collect(Collectors.toList());
     }
 
     /**
@@ -236,8 +378,6 @@ public class ProcessProgressService {
      * 获取用户相关的所有流程进度
      */
     public List<Map<String, Object>> getUserProcessProgress(String userId) {
-        List<Map<String, Object>> result = new ArrayList<>();
-
         // 获取用户参与的所有流程实例（包括已完成和运行中的）
         List<HistoricProcessInstance> processes = historyService.createHistoricProcessInstanceQuery()
                 .involvedUser(userId)
@@ -245,13 +385,104 @@ public class ProcessProgressService {
                 .desc()
                 .list();
 
-        for (HistoricProcessInstance process : processes) {
-            try {
-                Map<String, Object> progress = getProcessProgressSummary(process);
-                result.add(progress);
-            } catch (Exception e) {
-                log.warn("获取流程进度失败: {}", process.getId(), e);
+        return buildProgressSummaries(processes);
+    }
+
+    /**
+     * 键集分页获取用户相关的流程进度（按开始时间、实例ID倒序）
+     */
+    public KeysetPage<Map<String, Object>> getUserProcessProgressPage(String userId, String cursor, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        List<HistoricProcessInstance> processes = queryUserProcessPage(userId, PageCursor.decode(cursor), pageSize + 1);
+
+        boolean hasMore = processes.size() > pageSize;
+        if (hasMore) {
+            processes = processes.subList(0, pageSize);
+        }
+
+        String nextCursor = null;
+        if (hasMore) {
+            HistoricProcessInstance last = processes.get(processes.size() - 1);
+            nextCursor = new PageCursor(last.getStartTime(), last.getId()).encode();
+        }
+        return new KeysetPage<>(buildProgressSummaries(processes), nextCursor, hasMore);
+    }
+
+    /**
+     * 流式输出用户相关的流程进度：逐页查询、逐页回调，内存中只保留一页数据
+     */
+    public void streamUserProcessProgress(String userId, int batchSize, Consumer<List<Map<String, Object>>> pageConsumer) {
+        int pageSize = Math.max(1, Math.min(batchSize, MAX_PAGE_SIZE));
+        PageCursor cursor = null;
+        while (true) {
+            List<HistoricProcessInstance> processes = queryUserProcessPage(userId, cursor, pageSize);
+            if (processes.isEmpty()) {
+                return;
             }
+
+            pageConsumer.accept(buildProgressSummaries(processes));
+
+            if (processes.size() < pageSize) {
+                return;
+            }
+            HistoricProcessInstance last = processes.get(processes.size() - 1);
+            cursor = new PageCursor(last.getStartTime(), last.getId());
+        }
+    }
+
+    /**
+     * 用户参与流程的键集分页查询，条件与 involvedUser 一致，
+     * 以 (START_TIME_, ID_) 作为游标避免深分页 OFFSET 扫描
+     */
+    private List<HistoricProcessInstance> queryUserProcessPage(String userId, PageCursor cursor, int limit) {
+        StringBuilder sql = new StringBuilder("SELECT RES.* FROM ACT_HI_PROCINST RES")
+                .append(" WHERE EXISTS (SELECT 1 FROM ACT_HI_IDENTITYLINK LINK")
+                .append(" WHERE LINK.USER_ID_ = #{userId} AND LINK.PROC_INST_ID_ = RES.ID_)");
+        if (cursor != null) {
+            sql.append(" AND (RES.START_TIME_ < #{cursorTime}")
+                    .append(" OR (RES.START_TIME_ = #{cursorTime} AND RES.ID_ < #{cursorId}))");
+        }
+        sql.append(" ORDER BY RES.START_TIME_ DESC, RES.ID_ DESC");
+
+        NativeHistoricProcessInstanceQuery query = historyService.createNativeHistoricProcessInstanceQuery()
+                .sql(sql.toString())
+                .parameter("userId", userId);
+        if (cursor != null) {
+            query.parameter("cursorTime", cursor.getSortTime())
+                    .parameter("cursorId", cursor.getId());
+        }
+        return query.listPage(0, limit);
+    }
+
+    /**
+     * 批量构建流程进度摘要：流程定义走缓存，任务统计走一次分组查询，在内存中组装，
+     * 查询次数与流程实例数量无关（仅按 IN 列表大小分片）
+     */
+    private List<Map<String, Object>> buildProgressSummaries(List<HistoricProcessInstance> processes) {
+        List<Map<String, Object>> result = new ArrayList<>(processes.size());
+        if (processes.isEmpty()) {
+            return result;
+        }
+
+        Set<String> definitionIds = processes.stream()
+                .map(HistoricProcessInstance::getProcessDefinitionId)
+                .collect(Collectors.toSet());
+        List<String> instanceIds = processes.stream()
+                .map(HistoricProcessInstance::getId)
+                .collect(Collectors.toList());
+
+        Map<String, ProcessDefinitionBrief> definitions = definitionCache.getByIds(definitionIds);
+
+        Map<String, ProcessTaskCount> taskCounts = new HashMap<>();
+        for (List<String> chunk : CollUtil.split(instanceIds, IN_CLAUSE_BATCH_SIZE)) {
+            progressMapper.selectTaskCounts(chunk)
+                    .forEach(count -> taskCounts.put(count.getProcessInstanceId(), count));
+        }
+
+        for (HistoricProcessInstance process : processes) {
+            ProcessDefinitionBrief definition = definitions.get(process.getProcessDefinitionId());
+            String processName = definition != null ? definition.getName() : "未知流程";
+            result.add(getProcessProgressSummary(process, processName, taskCounts.get(process.getId())));
         }
 
         return result;
@@ -260,7 +491,9 @@ public class ProcessProgressService {
     /**
      * 获取流程进度摘要（性能优化）
      */
-    private Map<String, Object> getProcessProgressSummary(HistoricProcessInstance process) {
+    private Map<String, Object> getProcessProgressSummary(HistoricProcessInstance process,
+                                                          String processName,
+                                                          ProcessTaskCount taskCount) {
         Map<String, Object> progress = new LinkedHashMap<>();
         progress.put("processInstanceId", process.getId());
         progress.put("processDefinitionId", process.getProcessDefinitionId());
@@ -268,22 +501,11 @@ public class ProcessProgressService {
         progress.put("startTime", process.getStartTime());
         progress.put("endTime", process.getEndTime());
         progress.put("status", process.getEndTime() != null ? "COMPLETED" : "RUNNING");
-
-        // 获取流程定义名称
-        ProcessDefinition definition = repositoryService.createProcessDefinitionQuery()
-                .processDefinitionId(process.getProcessDefinitionId())
-                .singleResult();
-        progress.put("processName", definition != null ? definition.getName() : "未知流程");
+        progress.put("processName", processName);
 
         // 计算任务完成情况
-        long totalTasks = historyService.createHistoricTaskInstanceQuery()
-                .processInstanceId(process.getId())
-                .count();
-
-        long completedTasks = historyService.createHistoricTaskInstanceQuery()
-                .processInstanceId(process.getId())
-                .finished()
-                .count();
+        long totalTasks = taskCount != null ? taskCount.getTotalTasks() : 0;
+        long completedTasks = taskCount != null ? taskCount.getCompletedTasks() : 0;
 
         progress.put("totalTasks", totalTasks);
         progress.put("completedTasks", completedTasks);
@@ -294,17 +516,32 @@ public class ProcessProgressService {
 
     /**
      * 获取流程图形化进度
+     * <p>
+     * 命中进度快照且不需要活动明细时，直接返回快照中的节点状态，无需查询数据库。
      */
-    public Map<String, Object> getGraphicalProgress(String processInstanceId) {
+    public Map<String, Object> getGraphicalProgress(String processInstanceId, boolean withActivities) {
         Map<String, Object> result = new LinkedHashMap<>();
 
-        // 首先检查流程是否存在
-        HistoricProcessInstance historicProcessInstance = historyService.createHistoricProcessInstanceQuery()
-                .processInstanceId(processInstanceId)
-                .singleResult();
+        ProgressSnapshot snapshot = snapshotStore.get(processInstanceId);
+        if (snapshot != null && !withActivities) {
+            result.put("nodeStatus", snapshot.getNodeStatusMap());
+            result.put("processStatus", snapshot.getStatus());
+            return result;
+        }
 
-        if (historicProcessInstance == null) {
-            throw new RuntimeException("流程实例不存在: " + processInstanceId);
+        String processStatus;
+        if (snapshot != null) {
+            processStatus = snapshot.getStatus();
+        } else {
+            // 首先检查流程是否存在
+            HistoricProcessInstance historicProcessInstance = historyService.createHistoricProcessInstanceQuery()
+                    .processInstanceId(processInstanceId)
+                    .singleResult();
+
+            if (historicProcessInstance == null) {
+                throw new RuntimeException("流程实例不存在: " + processInstanceId);
+            }
+            processStatus = historicProcessInstance.getEndTime() != null ? "COMPLETED" : "RUNNING";
         }
 
         // 获取所有活动节点
@@ -314,27 +551,92 @@ public class ProcessProgressService {
                 .asc()
                 .list();
 
-        // 构建节点状态
-        Map<String, String> nodeStatus = new LinkedHashMap<>();
-        for (HistoricActivityInstance activity : activities) {
-            String status = activity.getEndTime() != null ? "completed" : "active";
-            if ("startEvent".equals(activity.getActivityType())) {
-                nodeStatus.put(activity.getActivityId(), "completed");
-            } else if ("endEvent".equals(activity.getActivityType())) {
-                nodeStatus.put(activity.getActivityId(),
-                        activity.getEndTime() != null ? "completed" : "pending");
+        result.put("nodeStatus", buildNodeStatus(activities));
+        if (withActivities) {
+            result.put("activities", activities.stream()
+                    .map(this::formatActivityForGraph)
+                    .collect(Collectors.toList()));
+        }
+        result.put("processStatus", processStatus);
+
+        return result;
+    }
+
+    /**
+     * 批量获取流程图进度（看板等一次展示多个流程的场景）
+     * <p>
+     * 命中快照的直接返回；其余流程实例的活动历史与流程状态按批 IN 查询，
+     * 查询次数只与批次数有关，与流程实例个数无关。不存在的流程实例不出现在结果中。
+     */
+    public Map<String, Map<String, Object>> getGraphicalProgressBatch(Collection<String> processInstanceIds) {
+        Set<String> ids = new LinkedHashSet<>(processInstanceIds);
+        Map<String, ProgressSnapshot> snapshots = snapshotStore.getAll(ids, IN_CLAUSE_BATCH_SIZE);
+
+        List<String> missingIds = ids.stream()
+                .filter(id -> !snapshots.containsKey(id))
+                .collect(Collectors.toList());
+        Map<String, String> processStatuses = new HashMap<>();
+        Map<String, Map<String, String>> nodeStatuses = new HashMap<>();
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (List<String> chunk : CollUtil.split(missingIds, IN_CLAUSE_BATCH_SIZE)) {
+            futures.add(CompletableFuture.runAsync(() -> {
+                List<HistoricProcessInstance> instances = historyService.createHistoricProcessInstanceQuery()
+                        .processInstanceIds(new HashSet<>(chunk))
+                        .list();
+                List<ActivityStatusRow> rows = progressMapper.selectActivityStatuses(chunk);
+
+                Map<String, Map<String, String>> chunkNodeStatuses = new HashMap<>();
+                for (ActivityStatusRow row : rows) {
+                    putNodeStatus(chunkNodeStatuses.computeIfAbsent(row.getProcessInstanceId(), id -> new LinkedHashMap<>()),
+                            row.getActivityId(), row.getActivityType(), row.getEndTime() != null);
+                }
+                synchronized (processStatuses) {
+                    for (HistoricProcessInstance instance : instances) {
+                        processStatuses.put(instance.getId(), instance.getEndTime() != null ? "COMPLETED" : "RUNNING");
+                    }
+                    nodeStatuses.putAll(chunkNodeStatuses);
+                }
+            }, progressQueryExecutor));
+        }
+        join(CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])));
+
+        Map<String, Map<String, Object>> result = new LinkedHashMap<>();
+        for (String id : ids) {
+            Map<String, Object> item = new LinkedHashMap<>();
+            ProgressSnapshot snapshot = snapshots.get(id);
+            if (snapshot != null) {
+                item.put("nodeStatus", snapshot.getNodeStatusMap());
+                item.put("processStatus", snapshot.getStatus());
+            } else if (processStatuses.containsKey(id)) {
+                item.put("nodeStatus", nodeStatuses.getOrDefault(id, Collections.emptyMap()));
+                item.put("processStatus", processStatuses.get(id));
             } else {
-                nodeStatus.put(activity.getActivityId(), status);
+                continue;
             }
+            result.put(id, item);
         }
+        return result;
+    }
 
-        result.put("nodeStatus", nodeStatus);
-        result.put("activities", activities.stream()
-                .map(this::formatActivityForGraph)
-                .collect(Collectors.toList()));
-        result.put("processStatus", historicProcessInstance.getEndTime() != null ? "COMPLETED" : "RUNNING");
+    /**
+     * 构建节点状态
+     */
+    private Map<String, String> buildNodeStatus(List<HistoricActivityInstance> activities) {
+        Map<String, String> nodeStatus = new LinkedHashMap<>();
+        for (HistoricActivityInstance activity : activities) {
+            putNodeStatus(nodeStatus, activity.getActivityId(), activity.getActivityType(), activity.getEndTime() != null);
+        }
+        return nodeStatus;
+    }
 
-        return result;
+    private void putNodeStatus(Map<String, String> nodeStatus, String activityId, String activityType, boolean ended) {
+        if ("startEvent".equals(activityType)) {
+            nodeStatus.put(activityId, "completed");
+        } else if ("endEvent".equals(activityType)) {
+            nodeStatus.put(activityId, ended ? "completed" : "pending");
+        } else {
+            nodeStatus.put(activityId, ended ? "completed" : "active");
+        }
     }
 
     private Map<String, Object> formatActivityForGraph(HistoricActivityInstance activity) {
@@ -0,0 +1,226 @@
+package com.example.demothree.flowable.service;
+
+import com.example.demothree.config.WorkflowProperties;
+import com.example.demothree.flowable.cache.ProcessDefinitionCache;
+import com.example.demothree.flowable.cache.ProcessGraphCache;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.flowable.bpmn.model.BpmnModel;
+import org.flowable.bpmn.model.FlowElement;
+import org.flowable.bpmn.model.ImplementationType;
+import org.flowable.bpmn.model.Process;
+import org.flowable.bpmn.model.SequenceFlow;
+import org.flowable.bpmn.model.ServiceTask;
+import org.flowable.bpmn.model.UserTask;
+import org.flowable.common.engine.impl.el.ExpressionManager;
+import org.flowable.engine.RepositoryService;
+import org.flowable.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.flowable.engine.repository.ProcessDefinition;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 流程定义预热
+ * <p>
+ * 部署完成后把各流程最新版本加载进引擎的流程定义缓存（解析 BpmnModel）、预编译其中的表达式，
+ * 并预热流程定义缓存与流程图缓存，避免首批请求承担解析开销。预热完成前就绪检查不通过；
+ * 预热失败（如数据库暂不可用）时按指数退避重试，直到成功。部分流程定义预热失败时视为就绪（DEGRADED，
+ * 未预热的流程在首次使用时由引擎加载），健康详情中列出失败的流程定义，并按同样的退避重新预热。
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ProcessWarmupService {
+
+    public enum State {
+        DEPLOYING, WARMING, READY, DEGRADED, FAILED
+    }
+
+    private final RepositoryService repositoryService;
+    private final ProcessEngineConfigurationImpl processEngineConfiguration;
+    private final ProcessDefinitionCache definitionCache;
+    private final ProcessGraphCache processGraphCache;
+    private final WorkflowProperties workflowProperties;
+    @Qualifier("deploymentPipelineExecutor")
+    private final Executor deploymentPipelineExecutor;
+
+    private volatile State state = State.DEPLOYING;
+    private volatile Map<String, Object> details = Map.of();
+    /**
+     * 连续失败次数，成功后清零
+     */
+    private final AtomicInteger failedAttempts = new AtomicInteger();
+    private final ScheduledExecutorService retryScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "Warmup-Retry");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @PreDestroy
+    public void stop() {
+        retryScheduler.shutdownNow();
+    }
+
+    /**
+     * 异步预热，流程定义在部署流水线线程池中并行加载
+     */
+    @Async
+    public CompletableFuture<Void> warmUpAsync() {
+        warmUp();
+        return CompletableFuture.completedFuture(null);
+    }
+
+    /**
+     * 预热全部最新版本流程定义，单个流程失败不影响其他流程
+     */
+    public void warmUp() {
+        // 部分失败后的重新预热期间保持就绪
+        if (state != State.DEGRADED) {
+            state = State.WARMING;
+        }
+        long start = System.currentTimeMillis();
+        try {
+            List<ProcessDefinition> definitions = repositoryService.createProcessDefinitionQuery()
+                    .latestVersion()
+                    .list();
+
+            AtomicInteger expressions = new AtomicInteger();
+            List<String> failedIds = Collections.synchronizedList(new ArrayList<>());
+            CompletableFuture.allOf(definitions.stream()
+                    .map(definition -> CompletableFuture.runAsync(() -> {
+                        try {
+                            expressions.addAndGet(warmUp(definition));
+                        } catch (Exception e) {
+                            failedIds.add(definition.getId());
+                            log.warn("预热流程定义失败: {}", definition.getId(), e);
+                        }
+                    }, deploymentPipelineExecutor))
+                    .toArray(CompletableFuture[]::new)).join();
+
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("definitions", definitions.size());
+            result.put("failedDefinitions", failedIds.size());
+            result.put("expressions", expressions.get());
+            result.put("durationMillis", System.currentTimeMillis() - start);
+            if (failedIds.isEmpty()) {
+                details = result;
+                failedAttempts.set(0);
+                state = State.READY;
+                log.info("🔥 流程定义预热完成: {}", result);
+                return;
+            }
+
+            int attempts = failedAttempts.incrementAndGet();
+            long delay = retryDelaySeconds(attempts);
+            result.put("failedDefinitionIds", List.copyOf(failedIds));
+            result.put("failedAttempts", attempts);
+            result.put("nextRetrySeconds", delay);
+            details = result;
+            state = State.DEGRADED;
+            log.warn("⚠️ 流程定义部分预热失败（第 {} 次），{} 秒后重新预热: {}", attempts, delay, result);
+            retryLater(delay);
+        } catch (Exception e) {
+            scheduleRetry(e);
+        }
+    }
+
+    /**
+     * 失败后按指数退避重新预热，重试期间就绪检查保持不通过
+     */
+    private void scheduleRetry(Exception e) {
+        int attempts = failedAttempts.incrementAndGet();
+        long delay = retryDelaySeconds(attempts);
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("error", String.valueOf(e.getMessage()));
+        result.put("failedAttempts", attempts);
+        result.put("nextRetrySeconds", delay);
+        details = result;
+        state = State.FAILED;
+        log.error("❌ 流程定义预热失败（第 {} 次），{} 秒后重试", attempts, delay, e);
+        retryLater(delay);
+    }
+
+    private long retryDelaySeconds(int attempts) {
+        WorkflowProperties.Warmup config = workflowProperties.getWarmup();
+        long initial = Math.max(1, config.getRetryInitialSeconds());
+        return Math.min(Math.max(initial, config.getRetryMaxSeconds()), initial << Math.min(attempts - 1, 20));
+    }
+
+    private void retryLater(long delaySeconds) {
+        try {
+            retryScheduler.schedule(this::warmUp, delaySeconds, TimeUnit.SECONDS);
+        } catch (RejectedExecutionException ignored) {
+            // 应用关闭中
+        }
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public Map<String, Object> getDetails() {
+        return details;
+    }
+
+    private int warmUp(ProcessDefinition definition) {
+        definitionCache.putLatest(definition);
+        // 解析并放入引擎的流程定义缓存
+        repositoryService.getProcessDefinition(definition.getId());
+        processGraphCache.get(definition.getId());
+
+        BpmnModel bpmnModel = repositoryService.getBpmnModel(definition.getId());
+        ExpressionManager expressionManager = processEngineConfiguration.getExpressionManager();
+        int compiled = 0;
+        for (String expression : collectExpressions(bpmnModel)) {
+            expressionManager.createExpression(expression);
+            compiled++;
+        }
+        return compiled;
+    }
+
+    /**
+     * 收集条件、办理人、候选人等运行时需要求值的表达式
+     */
+    private Set<String> collectExpressions(BpmnModel bpmnModel) {
+        Set<String> expressions = new LinkedHashSet<>();
+        for (Process process : bpmnModel.getProcesses()) {
+            for (FlowElement element : process.findFlowElementsOfType(FlowElement.class, true)) {
+                if (element instanceof SequenceFlow flow) {
+                    addExpression(expressions, flow.getConditionExpression());
+                    addExpression(expressions, flow.getSkipExpression());
+                } else if (element instanceof UserTask task) {
+                    addExpression(expressions, task.getAssignee());
+                    addExpression(expressions, task.getOwner());
+                    addExpression(expressions, task.getDueDate());
+                    addExpression(expressions, task.getPriority());
+                    addExpression(expressions, task.getSkipExpression());
+                    task.getCandidateUsers().forEach(user -> addExpression(expressions, user));
+                    task.getCandidateGroups().forEach(group -> addExpression(expressions, group));
+                } else if (element instanceof ServiceTask task
+                        && (ImplementationType.IMPLEMENTATION_TYPE_EXPRESSION.equals(task.getImplementationType())
+                        || ImplementationType.IMPLEMENTATION_TYPE_DELEGATEEXPRESSION.equals(task.getImplementationType()))) {
+                    addExpression(expressions, task.getImplementation());
+                }
+            }
+        }
+        return expressions;
+    }
+
+    private void addExpression(Set<String> expressions, String text) {
+        if (text != null && (text.contains("${") || text.contains("#{"))) {
+            expressions.add(text);
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package com.example.demothree.flowable.service;
+
+import com.example.demothree.config.WorkflowProperties;
+import com.example.demothree.flowable.cache.ProgressSnapshotStore;
+import com.example.demothree.flowable.dto.ProgressDelta;
+import com.example.demothree.flowable.entity.ProgressSnapshot;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Deque;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 流程进度 SSE 推送
+ * <p>
+ * 连接基于 Servlet 异步支持，空闲连接不占用请求线程；每个连接有自己的发送队列，在 SSE 推送线程池中依次发送，
+ * 慢连接不会阻塞其他连接；线程池饱和时关闭连接，由客户端重连后重新获取完整进度。引擎事件在事务提交后才投递，增量携带本事务提交的快照值；
+ * 没有订阅者的流程实例不产生任何开销。
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ProgressStreamService {
+
+    private final WorkflowProperties workflowProperties;
+    private final ProgressSnapshotStore snapshotStore;
+    @Lazy
+    private final ProcessProgressService progressService;
+    @Qualifier("sseExecutor")
+    private final Executor sseExecutor;
+
+    private final Map<String, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private ScheduledExecutorService heartbeatScheduler;
+
+    @PostConstruct
+    public void start() {
+        heartbeatScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "Progress-SSE-Heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        int heartbeat = workflowProperties.getProgressStream().getHeartbeatSeconds();
+        heartbeatScheduler.scheduleAtFixedRate(this::heartbeat, heartbeat, heartbeat, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        heartbeatScheduler.shutdownNow();
+        subscribers.values().forEach(set -> set.forEach(subscriber -> subscriber.emitter.complete()));
+        subscribers.clear();
+    }
+
+    /**
+     * 订阅流程进度，连接建立后先推送一次完整进度
+     * <p>
+     * 先登记连接再加载完整进度，加载期间发生的增量在完整进度之后推送，不会丢失。
+     */
+    public SseEmitter subscribe(String processInstanceId) {
+        SseEmitter emitter = new SseEmitter(workflowProperties.getProgressStream().getTimeout());
+        Subscriber subscriber = new Subscriber(processInstanceId, emitter);
+        // 与 unsubscribe 的 computeIfPresent 在同一个键上互斥，不会登记到已被移除的集合中
+        subscribers.compute(processInstanceId, (id, set) -> {
+            Set<Subscriber> target = set != null ? set : new CopyOnWriteArraySet<>();
+            target.add(subscriber);
+            return target;
+        });
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onTimeout(() -> unsubscribe(subscriber));
+        emitter.onError(ex -> unsubscribe(subscriber));
+
+        Map<String, Object> progress;
+        try {
+            progress = progressService.getProcessProgress(processInstanceId);
+        } catch (RuntimeException e) {
+            unsubscribe(subscriber);
+            throw e;
+        }
+        subscriber.start(SseEmitter.event().name("progress").data(progress));
+        return emitter;
+    }
+
+    public boolean hasSubscribers(String processInstanceId) {
+        Set<Subscriber> set = subscribers.get(processInstanceId);
+        return set != null && !set.isEmpty();
+    }
+
+    /**
+     * 发布进度增量：在事务中时等提交后再投递，回滚的变更不会推送
+     */
+    public void publish(ProgressDelta delta) {
+        if (!hasSubscribers(delta.getProcessInstanceId())) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    dispatch(delta);
+                }
+            });
+        } else {
+            dispatch(delta);
+        }
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.values().stream().mapToInt(Set::size).sum();
+    }
+
+    /**
+     * 填入本事务提交的快照值后放入各连接的发送队列，发送在线程池中进行
+     */
+    private void dispatch(ProgressDelta delta) {
+        Set<Subscriber> set = subscribers.get(delta.getProcessInstanceId());
+        if (set == null || set.isEmpty()) {
+            return;
+        }
+
+        ProgressSnapshot snapshot = snapshotStore.getCurrent(delta.getProcessInstanceId());
+        if (snapshot != null) {
+            delta.setProcessStatus(snapshot.getStatus());
+            delta.setProgressPercentage(snapshot.getProgressPercentage());
+            delta.setRevision(snapshot.getRevision());
+        }
+        for (Subscriber subscriber : set) {
+            subscriber.enqueue(SseEmitter.event().name("delta").data(delta));
+        }
+    }
+
+    private void heartbeat() {
+        subscribers.values().forEach(set -> set.forEach(
+                subscriber -> subscriber.enqueue(SseEmitter.event().comment("heartbeat"))));
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        subscribers.computeIfPresent(subscriber.processInstanceId, (id, set) -> {
+            set.remove(subscriber);
+            return set.isEmpty() ? null : set;
+        });
+    }
+
+    /**
+     * 单个连接：事件按入队顺序发送，同一时刻最多一个线程在发送；完整进度入队前只缓存增量不发送
+     */
+    private final class Subscriber {
+
+        private final String processInstanceId;
+        private final SseEmitter emitter;
+        private final Deque<SseEmitter.SseEventBuilder> outbox = new ConcurrentLinkedDeque<>();
+        private final AtomicBoolean sending = new AtomicBoolean();
+        private volatile boolean started;
+
+        private Subscriber(String processInstanceId, SseEmitter emitter) {
+            this.processInstanceId = processInstanceId;
+            this.emitter = emitter;
+        }
+
+        void start(SseEmitter.SseEventBuilder initial) {
+            outbox.addFirst(initial);
+            started = true;
+            schedule();
+        }
+
+        void enqueue(SseEmitter.SseEventBuilder event) {
+            outbox.addLast(event);
+            if (started) {
+                schedule();
+            }
+        }
+
+        private void schedule() {
+            if (!sending.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                sseExecutor.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                // 推送线程池饱和：关闭连接，不在调用线程（引擎事务、心跳）中发送；
+                // 不释放发送权，已关闭的连接不再调度
+                log.warn("SSE 推送线程池已满，关闭连接: {}", processInstanceId);
+                outbox.clear();
+                unsubscribe(this);
+                emitter.complete();
+            }
+        }
+
+        private void drain() {
+            try {
+                SseEmitter.SseEventBuilder event;
+                while ((event = outbox.pollFirst()) != null) {
+                    emitter.send(event);
+                }
+            } catch (IOException | IllegalStateException e) {
+                log.debug("SSE 连接已断开: {}", processInstanceId);
+                outbox.clear();
+                unsubscribe(this);
+                return;
+            } finally {
+                sending.set(false);
+            }
+            // 释放发送权后又有事件入队时继续发送
+            if (!outbox.isEmpty()) {
+                schedule();
+            }
+        }
+    }
+}
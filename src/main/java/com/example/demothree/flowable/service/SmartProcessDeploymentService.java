@@ -1,30 +1,41 @@
 package com.example.demothree.flowable.service;
 
 import cn.hutool.core.util.StrUtil;
+import com.example.demothree.config.WorkflowProperties;
+import com.example.demothree.flowable.cache.ProcessDefinitionCache;
+import com.example.demothree.flowable.cache.ProcessGraphCache;
+import com.example.demothree.flowable.dto.DeploymentOutcome;
+import com.example.demothree.flowable.dto.ProcessDefinitionBrief;
+import com.example.demothree.flowable.entity.DeploymentChecksum;
+import com.example.demothree.flowable.mapper.DeploymentChecksumMapper;
+import com.example.demothree.flowable.util.BpmnProcessIdExtractor;
+import com.example.demothree.flowable.util.ProcessContentHasher;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.flowable.engine.RepositoryService;
 import org.flowable.engine.repository.Deployment;
+import org.flowable.engine.repository.DeploymentBuilder;
 import org.flowable.engine.repository.ProcessDefinition;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
 import org.springframework.stereotype.Service;
-import org.springframework.util.DigestUtils;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.util.HashMap;
+import java.util.Collection;
+import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.xpath.XPath;
-import javax.xml.xpath.XPathConstants;
-import javax.xml.xpath.XPathExpression;
-import javax.xml.xpath.XPathFactory;
-import org.w3c.dom.Document;
-import org.w3c.dom.Node;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.stream.Collectors;
 
 @Service
 @Slf4j
@@ -33,10 +44,40 @@ public class SmartProcessDeploymentService {
     @Autowired
     private RepositoryService repositoryService;
 
-    private final Map<String, String> processChecksums = new HashMap<>();
+    @Autowired
+    private ProcessDefinitionCache definitionCache;
+
+    @Autowired
+    private ProcessGraphCache processGraphCache;
+
+    @Autowired
+    @Qualifier("deploymentPipelineExecutor")
+    private Executor deploymentPipelineExecutor;
+
+    @Autowired
+    private DeploymentChecksumMapper checksumMapper;
+
+    @Autowired
+    private WorkflowProperties workflowProperties;
+
+    private final Map<String, String> processChecksums = new ConcurrentHashMap<>();
+
+    private volatile boolean checksumsLoaded;
+
+    private ProcessContentHasher contentHasher;
+
+    @PostConstruct
+    public void initContentHasher() {
+        WorkflowProperties.Checksum checksum = workflowProperties.getDeploy().getChecksum();
+        contentHasher = new ProcessContentHasher(checksum.getAlgorithm(), checksum.isCanonical());
+        log.info("流程校验和算法: {}{}", checksum.getAlgorithm(), checksum.isCanonical() ? "（规范化）" : "");
+    }
 
     /**
      * 智能部署所有流程定义
+     * <p>
+     * 读取、解析、计算校验和在部署流水线线程池中并行执行，有变更的流程合并为一次部署提交给引擎；
+     * 合并部署失败时逐个部署，单个文件出错不影响其他流程。合并部署中的旧版本由清理任务在其全部流程都过期后删除。
      */
     public void deployAllProcessesSmart() throws IOException {
         log.info("开始智能部署流程定义...");
@@ -48,60 +89,128 @@ public class SmartProcessDeploymentService {
         resources.addAll(Arrays.asList(resourcesXml));
         resources.addAll(Arrays.asList(resourcesBpmn));
 
-        for (Resource resource : resources) {
-            String fullFilename = resource.getFilename();
-            String filename =  this.getBeforeFirstDot(fullFilename);
+        // 已部署流程的校验和一次加载，流水线中不再逐个下载部署资源
+        loadPersistedChecksums();
 
-            try (InputStream is = resource.getInputStream()) {
-                byte[] bytes = is.readAllBytes();
-                if (StrUtil.isEmpty(filename)) {
-                    log.error("⚠️ 文件名为空，跳过: " + fullFilename);
-                    continue;
-                }
+        List<CompletableFuture<PreparedResource>> futures = resources.stream()
+                .map(resource -> CompletableFuture.supplyAsync(() -> prepare(resource), deploymentPipelineExecutor))
+                .collect(Collectors.toList());
 
-                String processKey = extractProcessId(bytes);
-                if (StrUtil.isEmpty(processKey)) {
-                    log.error("⚠️ 无法从BPMN中解析process id，文件: " + fullFilename + "，跳过。");
-                    continue;
+        // 同一个 process id 只部署一次，按资源顺序取第一个
+        Map<String, PreparedResource> changed = new LinkedHashMap<>();
+        for (CompletableFuture<PreparedResource> future : futures) {
+            PreparedResource prepared = future.join();
+            if (prepared == null) {
+                continue;
+            }
+            if (prepared.checksum().equals(prepared.existingChecksum())) {
+                // 内容未改变，跳过部署
+                log.info("✅ 流程未改变，跳过部署: " + prepared.processKey());
+                continue;
+            }
+            PreparedResource duplicate = changed.putIfAbsent(prepared.processKey(), prepared);
+            if (duplicate != null) {
+                log.error("⚠️ 流程 " + prepared.processKey() + " 同时定义在 " + duplicate.fullFilename()
+                        + " 和 " + prepared.fullFilename() + "，跳过后者。");
+            }
+        }
+
+        if (!changed.isEmpty()) {
+            try {
+                deployBatch(changed.values());
+            } catch (Exception e) {
+                log.error("❌ 合并部署失败，改为逐个部署: " + e.getMessage());
+                for (PreparedResource prepared : changed.values()) {
+                    try {
+                        deployBatch(List.of(prepared));
+                    } catch (Exception ex) {
+                        log.error("❌ 部署失败: " + prepared.filename() + " - " + ex.getMessage());
+                    }
                 }
+            }
+        }
 
-                // 将文件名参与校验和，文件名变动也视为变更
-                String newChecksum = DigestUtils.md5DigestAsHex(fullFilename.getBytes())
-                        + ":" + DigestUtils.md5DigestAsHex(bytes);
+        printDeploymentSummary();
+    }
 
-                String existingChecksum = getExistingChecksum(processKey);
+    /**
+     * 读取资源、解析 process id、计算新旧校验和，失败返回 null
+     */
+    private PreparedResource prepare(Resource resource) {
+        try {
+            return prepareOrThrow(resource);
+        } catch (Exception e) {
+            log.error("❌ 部署失败: " + resource.getFilename() + " - " + e.getMessage());
+            return null;
+        }
+    }
 
-                if (existingChecksum != null && existingChecksum.equals(newChecksum)) {
-                    // 内容未改变，跳过部署
-                    log.info("✅ 流程未改变，跳过部署: " + processKey);
-                    continue;
-                }
+    private PreparedResource prepareOrThrow(Resource resource) throws IOException {
+        String fullFilename = resource.getFilename();
+        String filename = StrUtil.isEmpty(fullFilename) ? null : this.getBeforeFirstDot(fullFilename);
 
+        try (InputStream is = resource.getInputStream()) {
+            byte[] bytes = is.readAllBytes();
+            if (StrUtil.isEmpty(filename)) {
+                throw new RuntimeException("⚠️ 文件名为空，跳过: " + fullFilename);
+            }
 
-                // 内容改变或首次部署
-                Deployment deployment = repositoryService.createDeployment()
-                        .addBytes(fullFilename, bytes)
-                        .name("智能部署 - " + filename)
-                        .key(processKey)
-                        .deploy();
+            String processKey = extractProcessId(bytes);
+            if (StrUtil.isEmpty(processKey)) {
+                throw new RuntimeException("⚠️ 无法从BPMN中解析process id，文件: " + fullFilename + "，跳过。");
+            }
 
-                // 更新校验和（以process id为索引）
-                processChecksums.put(processKey, newChecksum);
+            // 将文件名参与校验和，文件名变动也视为变更
+            String newChecksum = calculateCompositeChecksum(fullFilename, new ByteArrayInputStream(bytes));
 
-                ProcessDefinition processDefinition = repositoryService.createProcessDefinitionQuery()
-                        .deploymentId(deployment.getId())
-                        .singleResult();
+            return new PreparedResource(fullFilename, filename, processKey, bytes, newChecksum,
+                    getExistingChecksum(processKey));
+        }
+    }
 
-                log.info("🚀 部署新版本: " + processDefinition.getKey() +
-                        " 版本: " + processDefinition.getVersion() +
-                        " (内容已改变)");
+    /**
+     * 一次部署提交多个流程资源，部署成功后更新校验和与缓存
+     */
+    private Deployment deployBatch(Collection<PreparedResource> batch) {
+        DeploymentBuilder builder = repositoryService.createDeployment();
+        for (PreparedResource prepared : batch) {
+            builder.addBytes(prepared.fullFilename(), prepared.bytes());
+        }
+        if (batch.size() == 1) {
+            PreparedResource prepared = batch.iterator().next();
+            builder.name("智能部署 - " + prepared.filename()).key(prepared.processKey());
+        } else {
+            builder.name("智能部署 - 批量(" + batch.size() + ")");
+        }
+        Deployment deployment = builder.deploy();
+
+        List<DeploymentChecksum> records = new ArrayList<>();
+        for (PreparedResource prepared : batch) {
+            // 更新校验和（以process id为索引）
+            processChecksums.put(prepared.processKey(), prepared.checksum());
+            records.add(newChecksumRecord(prepared.processKey(), prepared.checksum(),
+                    deployment.getId(), prepared.fullFilename()));
+        }
+        saveChecksums(records);
 
-            } catch (Exception e) {
-                log.error("❌ 部署失败: " + filename + " - " + e.getMessage());
-            }
+        for (ProcessDefinition processDefinition : repositoryService.createProcessDefinitionQuery()
+                .deploymentId(deployment.getId())
+                .list()) {
+            definitionCache.putLatest(processDefinition);
+            processGraphCache.compile(processDefinition.getId());
+
+            log.info("🚀 部署新版本: " + processDefinition.getKey() +
+                    " 版本: " + processDefinition.getVersion() +
+                    " (内容已改变)");
         }
+        return deployment;
+    }
 
-        printDeploymentSummary();
+    /**
+     * 部署流水线中间结果
+     */
+    private record PreparedResource(String fullFilename, String filename, String processKey, byte[] bytes,
+                                    String checksum, String existingChecksum) {
     }
 
     private String getBeforeFirstDot(String filename) {
@@ -112,14 +221,9 @@ public class SmartProcessDeploymentService {
         return filename.substring(0, dotIndex);
     }
 
-    // 已统一使用 calculateCompositeChecksum
-
-    // 与部署时保持一致：联合校验和 = MD5(resourceName) + ":" + MD5(resourceBytes)
+    // 与部署时保持一致：联合校验和 = 算法标识 + 摘要(resourceName) + ":" + 摘要(resourceBytes)，按流计算
     private String calculateCompositeChecksum(String resourceName, InputStream inputStream) throws IOException {
-        byte[] content = inputStream.readAllBytes();
-        String namePart = DigestUtils.md5DigestAsHex(resourceName.getBytes());
-        String contentPart = DigestUtils.md5DigestAsHex(content);
-        return namePart + ":" + contentPart;
+        return contentHasher.checksum(resourceName, inputStream);
     }
 
     /**
@@ -127,12 +231,15 @@ public class SmartProcessDeploymentService {
      * 从最新版本中提取或使用其他方式存储
      */
     private String getExistingChecksum(String processKey) throws IOException {
-        // 首先检查内存中的缓存
-        if (processChecksums.containsKey(processKey)) {
-            return processChecksums.get(processKey);
+        loadPersistedChecksums();
+
+        // 首先检查内存中的缓存，算法或规范化方式变更前的校验和不能直接比较
+        String cached = processChecksums.get(processKey);
+        if (contentHasher.isCurrentFormat(cached)) {
+            return cached;
         }
 
-        // 从数据库最新版本获取（这里简化处理，实际可以存储在校注变量中）
+        // 校验和表中没有记录或算法已变更时，从最新版本的部署资源重新计算，并回填校验和表
         ProcessDefinition latest = repositoryService.createProcessDefinitionQuery()
                 .processDefinitionKey(processKey)
                 .latestVersion()
@@ -147,6 +254,8 @@ public class SmartProcessDeploymentService {
                 if (resourceStream != null) {
                     String checksum = calculateCompositeChecksum(latest.getResourceName(), resourceStream);
                     processChecksums.put(processKey, checksum);
+                    saveChecksums(List.of(newChecksumRecord(processKey, checksum,
+                            latest.getDeploymentId(), latest.getResourceName())));
                     return checksum;
                 }
             }
@@ -156,60 +265,124 @@ public class SmartProcessDeploymentService {
     }
 
     /**
-     * 部署单个流程（带内容检查）
+     * 从校验和表一次加载全部校验和
+     * <p>
+     * 只接受与各流程最新版本部署ID一致的记录，绕过本服务部署的流程会回退到重新计算。
      */
-    public Deployment deployProcessSmart(String processFileName) throws IOException {
-        Resource resource = new PathMatchingResourcePatternResolver()
-                .getResource("classpath:/processes/" + processFileName);
-        String filename =  this.getBeforeFirstDot(processFileName);
-        Deployment deployment = null;
-        try (InputStream is = resource.getInputStream()) {
-            byte[] bytes = is.readAllBytes();
-            if (StrUtil.isEmpty(filename)) {
-                log.error("⚠️ 文件名为空，跳过: " + processFileName);
-                return null;
-            }
-
-            String processKey = extractProcessId(bytes);
-            if (StrUtil.isEmpty(processKey)) {
-                log.error("⚠️ 无法从BPMN中解析process id，文件: " + processFileName + "，跳过。");
-                return null;
+    private void loadPersistedChecksums() {
+        if (checksumsLoaded) {
+            return;
+        }
+        synchronized (this) {
+            if (checksumsLoaded) {
+                return;
             }
-
-            String newChecksum = DigestUtils.md5DigestAsHex(processFileName.getBytes())
-                    + ":" + DigestUtils.md5DigestAsHex(bytes);
-
-            String existingChecksum = getExistingChecksum(processKey);
-
-            if (existingChecksum != null && existingChecksum.equals(newChecksum)) {
-                // 内容未改变，跳过部署
-                log.info("✅ 流程未改变，跳过部署: " + processKey);
-                return null;
+            try {
+                Map<String, String> latestDeploymentIds = repositoryService.createProcessDefinitionQuery()
+                        .latestVersion()
+                        .list()
+                        .stream()
+                        .collect(Collectors.toMap(ProcessDefinition::getKey, ProcessDefinition::getDeploymentId,
+                                (existing, replacement) -> existing));
+                int loaded = 0;
+                for (DeploymentChecksum record : checksumMapper.selectList(null)) {
+                    if (record.getDeploymentId() != null
+                            && record.getDeploymentId().equals(latestDeploymentIds.get(record.getProcessKey()))) {
+                        processChecksums.putIfAbsent(record.getProcessKey(), record.getChecksum());
+                        loaded++;
+                    }
+                }
+                log.info("从校验和表加载流程校验和: {} 个", loaded);
+            } catch (Exception e) {
+                log.warn("加载流程校验和失败，将从部署资源重新计算: " + e.getMessage());
             }
+            checksumsLoaded = true;
+        }
+    }
 
+    /**
+     * 保存校验和，失败只记录日志，不影响部署
+     */
+    private void saveChecksums(List<DeploymentChecksum> records) {
+        if (records.isEmpty()) {
+            return;
+        }
+        try {
+            checksumMapper.upsertBatch(records);
+        } catch (Exception e) {
+            log.warn("保存流程校验和失败: " + e.getMessage());
+        }
+    }
 
-            // 内容改变或首次部署
-            deployment = repositoryService.createDeployment()
-                    .addBytes(processFileName, bytes)
-                    .name("智能部署 - " + filename)
-                    .key(processKey)
-                    .deploy();
+    private DeploymentChecksum newChecksumRecord(String processKey, String checksum, String deploymentId,
+                                                 String resourceName) {
+        return new DeploymentChecksum()
+                .setProcessKey(processKey)
+                .setChecksum(checksum)
+                .setDeploymentId(deploymentId)
+                .setResourceName(resourceName)
+                .setUpdateTime(new Date());
+    }
 
-            // 更新校验和
-            processChecksums.put(processKey, newChecksum);
+    /**
+     * 部署单个流程（带内容检查）
+     */
+    public Deployment deployProcessSmart(String processFileName) throws IOException {
+        Resource resource = new PathMatchingResourcePatternResolver()
+                .getResource("classpath:/processes/" + processFileName);
+        return deployResourceSmart(resource);
+    }
 
-            ProcessDefinition processDefinition = repositoryService.createProcessDefinitionQuery()
-                    .deploymentId(deployment.getId())
-                    .singleResult();
+    /**
+     * 部署单个流程资源（带内容检查），资源可来自 classpath 或文件系统，未改变或失败时返回 null
+     */
+    public Deployment deployResourceSmart(Resource resource) {
+        PreparedResource prepared = prepare(resource);
+        if (prepared == null) {
+            return null;
+        }
+        if (prepared.checksum().equals(prepared.existingChecksum())) {
+            // 内容未改变，跳过部署
+            log.info("✅ 流程未改变，跳过部署: " + prepared.processKey());
+            return null;
+        }
 
-            log.info("🚀 部署新版本: " + processDefinition.getKey() +
-                    " 版本: " + processDefinition.getVersion() +
-                    " (内容已改变)");
+        try {
+            return deployBatch(List.of(prepared));
+        } catch (Exception e) {
+            log.error("❌ 部署失败: " + prepared.filename() + " - " + e.getMessage());
+            return null;
+        }
+    }
 
+    /**
+     * 部署单个流程文件（带内容检查）并返回部署结果，异常不抛出，记录在结果中
+     */
+    public DeploymentOutcome deployProcessWithOutcome(String processFileName) {
+        long start = System.currentTimeMillis();
+        DeploymentOutcome outcome = new DeploymentOutcome().setFileName(processFileName);
+        try {
+            Resource resource = new PathMatchingResourcePatternResolver()
+                    .getResource("classpath:/processes/" + processFileName);
+            PreparedResource prepared = prepareOrThrow(resource);
+            outcome.setProcessKey(prepared.processKey());
+            if (prepared.checksum().equals(prepared.existingChecksum())) {
+                outcome.setStatus(DeploymentOutcome.STATUS_UNCHANGED).setMessage("流程内容未改变，跳过部署");
+            } else {
+                Deployment deployment = deployBatch(List.of(prepared));
+                outcome.setStatus(DeploymentOutcome.STATUS_DEPLOYED)
+                        .setDeploymentId(deployment.getId())
+                        .setMessage("部署成功");
+                ProcessDefinitionBrief latest = definitionCache.getLatestByKey(prepared.processKey());
+                if (latest != null) {
+                    outcome.setProcessDefinitionId(latest.getId()).setVersion(latest.getVersion());
+                }
+            }
         } catch (Exception e) {
-            log.error("❌ 部署失败: " + filename + " - " + e.getMessage());
+            log.error("❌ 部署失败: " + processFileName + " - " + e.getMessage());
+            outcome.setStatus(DeploymentOutcome.STATUS_FAILED).setMessage(e.getMessage());
         }
-        return deployment;
+        return outcome.setDurationMillis(System.currentTimeMillis() - start);
     }
 
     /**
@@ -234,9 +407,10 @@ public class SmartProcessDeploymentService {
                     .deploy();
 
             // 更新校验和
-            String newChecksum = DigestUtils.md5DigestAsHex((processFileName + "|#|_").getBytes())
-                    + ":" + DigestUtils.md5DigestAsHex(bytes);
+            String newChecksum = calculateCompositeChecksum(processFileName + "|#|_", new ByteArrayInputStream(bytes));
             processChecksums.put(processKey, newChecksum);
+            saveChecksums(List.of(newChecksumRecord(processKey, newChecksum, deployment.getId(), processFileName)));
+            definitionCache.evictLatest(processKey);
 
             log.info("🔨 强制部署: " + processKey);
             return deployment;
@@ -250,34 +424,17 @@ public class SmartProcessDeploymentService {
         log.info("\n=== 部署完成 ===");
         log.info("内存中缓存的流程校验和: " + processChecksums.size() + " 个");
 
+        // 只取各流程最新版本，并顺带预热流程定义缓存
         repositoryService.createProcessDefinitionQuery()
+                .latestVersion()
                 .orderByProcessDefinitionKey().asc()
                 .list()
                 .forEach(pd -> {
+                    definitionCache.putLatest(pd);
                     log.info("流程: {} 版本: {}",pd.getKey(), pd.getVersion());
                 });
     }
 
-    /**
-     * 清理旧的部署（保留最近N个版本）
-     */
-    public void cleanupOldDeployments(String processKey, int keepVersions) {
-        // 获取所有版本
-        var allVersions = repositoryService.createProcessDefinitionQuery()
-                .processDefinitionKey(processKey)
-                .orderByProcessDefinitionVersion().desc()
-                .list();
-
-        if (allVersions.size() > keepVersions) {
-            // 删除旧版本（保留最近keepVersions个）
-            for (int i = keepVersions; i < allVersions.size(); i++) {
-                ProcessDefinition oldVersion = allVersions.get(i);
-                repositoryService.deleteDeployment(oldVersion.getDeploymentId(), true);
-                log.info("🗑️  清理旧版本: " + processKey + " v" + oldVersion.getVersion());
-            }
-        }
-    }
-
     /**
      * 获取流程内容的校验和
      */
@@ -287,19 +444,7 @@ public class SmartProcessDeploymentService {
 
     // 从BPMN XML字节中解析第一个process的id，忽略命名空间
     private String extractProcessId(byte[] xmlBytes) {
-        try (InputStream in = new java.io.ByteArrayInputStream(xmlBytes)) {
-            DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-            factory.setNamespaceAware(true);
-            Document doc = factory.newDocumentBuilder().parse(in);
-
-            XPath xPath = XPathFactory.newInstance().newXPath();
-            XPathExpression expr = xPath.compile("/*[local-name()='definitions']/*[local-name()='process']/@id");
-            Node node = (Node) expr.evaluate(doc, XPathConstants.NODE);
-            return node == null ? null : node.getNodeValue();
-        } catch (Exception e) {
-            log.error("解析BPMN process id失败: " + e.getMessage());
-            return null;
-        }
+        return BpmnProcessIdExtractor.extractFirst(xmlBytes);
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,145 @@
+package com.example.demothree.flowable.service;
+
+import cn.hutool.core.util.StrUtil;
+import com.example.demothree.flowable.dto.KeysetPage;
+import com.example.demothree.flowable.dto.PageCursor;
+import com.example.demothree.flowable.dto.TaskInboxItem;
+import com.example.demothree.flowable.mapper.TaskInboxMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.flowable.engine.IdentityService;
+import org.flowable.idm.api.Group;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * 待办任务分页查询
+ * <p>
+ * 按 (创建时间, 任务ID) 倒序键集分页，只返回列表字段，每页的查询代价与队列长度无关；
+ * 总数只在第一页（不带游标）时统计。
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TaskInboxService {
+
+    private static final int MAX_PAGE_SIZE = 500;
+
+    private final TaskInboxMapper taskInboxMapper;
+    private final IdentityService identityService;
+
+    /**
+     * 分配给用户的待办
+     */
+    public KeysetPage<TaskInboxItem> getAssigneePage(String userId, String cursor, int size) {
+        return queryPage(userId, null, null, null, cursor, size);
+    }
+
+    /**
+     * 用户本人或所在组作为候选、尚未被认领的待办，与 TaskQuery#taskCandidateUser(userId, groups) 一致
+     *
+     * @param groupIds 用户所在组，为空时只按用户本人查询
+     */
+    public KeysetPage<TaskInboxItem> getCandidateUserPage(String userId, Collection<String> groupIds,
+                                                          String cursor, int size) {
+        return queryPage(null, userId, groupIds, null, cursor, size);
+    }
+
+    /**
+     * 候选组中尚未被认领的待办
+     */
+    public KeysetPage<TaskInboxItem> getCandidateGroupPage(String groupId, String cursor, int size) {
+        return queryPage(null, null, null, groupId, cursor, size);
+    }
+
+    /**
+     * "我的工作"：分配给用户的任务与用户/所在组可认领的任务合并为一个列表，
+     * 按优先级、创建时间倒序分页
+     *
+     * @param groupIds 用户所在组，为 null 时通过 IdentityService 查询（需启用身份引擎）
+     */
+    public KeysetPage<TaskInboxItem> getMyWorkPage(String userId, Collection<String> groupIds,
+                                                   String cursor, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        PageCursor pageCursor = PageCursor.decode(cursor);
+        if (pageCursor != null && (pageCursor.getPriority() == null || pageCursor.getSortTime() == null)) {
+            throw new RuntimeException("非法的分页游标: " + cursor);
+        }
+        Collection<String> groups = groupIds != null ? groupIds : resolveGroupIds(userId);
+
+        List<TaskInboxItem> items = taskInboxMapper.selectMyWorkPage(userId, groups,
+                pageCursor != null ? pageCursor.getPriority() : null,
+                pageCursor != null ? pageCursor.getSortTime() : null,
+                pageCursor != null ? pageCursor.getId() : null,
+                pageSize + 1);
+
+        boolean hasMore = items.size() > pageSize;
+        if (hasMore) {
+            items = items.subList(0, pageSize);
+        }
+
+        String nextCursor = null;
+        if (hasMore) {
+            TaskInboxItem last = items.get(items.size() - 1);
+            nextCursor = new PageCursor(last.getCreateTime(), last.getId(), last.getPriority()).encode();
+        }
+
+        Long total = null;
+        if (StrUtil.isBlank(cursor)) {
+            total = hasMore ? taskInboxMapper.countMyWork(userId, groups) : items.size();
+        }
+        return new KeysetPage<>(items, nextCursor, hasMore, total);
+    }
+
+    /**
+     * 通过 IdentityService 查询用户所在组
+     * <p>
+     * 身份引擎未启用（flowable.idm.enabled=false）时无法得知用户所在组，直接报错，
+     * 不能当作不属于任何组而漏掉组候选任务
+     */
+    private List<String> resolveGroupIds(String userId) {
+        try {
+            return identityService.createGroupQuery()
+                    .groupMember(userId)
+                    .list()
+                    .stream()
+                    .map(Group::getId)
+                    .collect(Collectors.toList());
+        } catch (RuntimeException e) {
+            log.warn("查询用户所在组失败: {}", userId, e);
+            throw new IllegalStateException("无法查询用户所在组（身份引擎未启用或不可用），请通过 groups 参数传入用户所在组", e);
+        }
+    }
+
+    private KeysetPage<TaskInboxItem> queryPage(String assignee, String candidateUser,
+                                                Collection<String> candidateGroups, String candidateGroup,
+                                                String cursor, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        PageCursor pageCursor = PageCursor.decode(cursor);
+
+        List<TaskInboxItem> items = taskInboxMapper.selectInboxPage(assignee, candidateUser, candidateGroups, candidateGroup,
+                pageCursor != null ? pageCursor.getSortTime() : null,
+                pageCursor != null ? pageCursor.getId() : null,
+                pageSize + 1);
+
+        boolean hasMore = items.size() > pageSize;
+        if (hasMore) {
+            items = items.subList(0, pageSize);
+        }
+
+        String nextCursor = null;
+        if (hasMore) {
+            TaskInboxItem last = items.get(items.size() - 1);
+            nextCursor = new PageCursor(last.getCreateTime(), last.getId()).encode();
+        }
+
+        Long total = null;
+        if (StrUtil.isBlank(cursor)) {
+            total = hasMore ? taskInboxMapper.countInbox(assignee, candidateUser, candidateGroups, candidateGroup) : items.size();
+        }
+        return new KeysetPage<>(items, nextCursor, hasMore, total);
+    }
+}
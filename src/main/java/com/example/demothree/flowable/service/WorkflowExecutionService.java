@@ -48,7 +48,10 @@ public class WorkflowExecutionService {
 
     /**
      * 查询用户任务
+     *
+     * @deprecated 不分页，使用 {@link TaskInboxService#getAssigneePage}
      */
+    @Deprecated
     public List<Task> getUserTasks(String userId) {
         List<Task> list = taskService.createTaskQuery()
                 .taskAssignee(userId)
@@ -60,7 +63,10 @@ public class WorkflowExecutionService {
 
     /**
      * 查询候选用户任务
+     *
+     * @deprecated 不分页，使用 {@link TaskInboxService#getCandidateUserPage}
      */
+    @Deprecated
     public List<Task> getCandidateUserTasks(String userId) {
         return taskService.createTaskQuery()
                 .taskCandidateUser(userId)
@@ -71,7 +77,10 @@ public class WorkflowExecutionService {
 
     /**
      * 查询候选组任务
+     *
+     * @deprecated 不分页，使用 {@link TaskInboxService#getCandidateGroupPage}
      */
+    @Deprecated
     public List<Task> getCandidateGroupTasks(String groupId) {
         return taskService.createTaskQuery()
                 .taskCandidateGroup(groupId)
@@ -85,8 +94,7 @@ public class WorkflowExecutionService {
      */
     @Transactional
     public void completeTask(String taskId, Map<String, Object> variables) {
-        Task task = taskService.createTaskQuery().taskId(taskId).singleResult();
-        log.info("完成任务: {}, 流程: {}", task.getName(), task.getProcessInstanceId());
+        log.info("完成任务: {}", taskId);
 
         if (variables != null && !variables.isEmpty()) {
             taskService.complete(taskId, variables);
@@ -46,7 +46,10 @@ public class WorkflowService {
 
     /**
      * 查询用户任务列表
+     *
+     * @deprecated 不分页，返回完整的任务实体，使用 {@link TaskInboxService#getAssigneePage}
      */
+    @Deprecated
     public List<Task> getUserTasks(String userId) {
         return taskService.createTaskQuery()
                 .taskAssignee(userId)
@@ -57,7 +60,10 @@ public class WorkflowService {
 
     /**
      * 查询组任务列表
+     *
+     * @deprecated 不分页，返回完整的任务实体，使用 {@link TaskInboxService#getCandidateGroupPage}
      */
+    @Deprecated
     public List<Task> getGroupTasks(String groupId) {
         return taskService.createTaskQuery()
                 .taskCandidateGroup(groupId)
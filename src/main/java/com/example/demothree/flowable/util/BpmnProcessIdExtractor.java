@@ -0,0 +1,99 @@
+package com.example.demothree.flowable.util;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * BPMN process id 流式解析（StAX）
+ * <p>
+ * 只读取 definitions 下的 process 元素，不构建 DOM；取第一个 id 时读到即停止，
+ * 取全部 id 时读到 BPMNDiagram（按 BPMN 规范位于所有 rootElement 之后）即停止，不解析图形布局部分。
+ */
+@Slf4j
+public final class BpmnProcessIdExtractor {
+
+    private BpmnProcessIdExtractor() {
+    }
+
+    /**
+     * 解析第一个 process 的 id，解析失败或不存在时返回 null
+     */
+    public static String extractFirst(byte[] xmlBytes) {
+        List<String> ids = extract(new ByteArrayInputStream(xmlBytes), true);
+        return ids.isEmpty() ? null : ids.get(0);
+    }
+
+    /**
+     * 解析全部 process 的 id，按文档顺序返回，解析失败时返回空列表
+     */
+    public static List<String> extractAll(byte[] xmlBytes) {
+        return extract(new ByteArrayInputStream(xmlBytes), false);
+    }
+
+    public static List<String> extractAll(InputStream in) {
+        return extract(in, false);
+    }
+
+    private static List<String> extract(InputStream in, boolean firstOnly) {
+        List<String> ids = new ArrayList<>();
+        XMLStreamReader reader = null;
+        try {
+            reader = XmlFactories.inputFactory().createXMLStreamReader(in);
+            int depth = 0;
+            while (reader.hasNext()) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.END_ELEMENT) {
+                    depth--;
+                    continue;
+                }
+                if (event != XMLStreamConstants.START_ELEMENT) {
+                    continue;
+                }
+
+                depth++;
+                String localName = reader.getLocalName();
+                if (depth == 1 && !"definitions".equals(localName)) {
+                    // 根元素不是 definitions，不是 BPMN 文件
+                    break;
+                }
+                if (depth == 2) {
+                    if ("process".equals(localName)) {
+                        String id = reader.getAttributeValue(null, "id");
+                        if (id != null) {
+                            ids.add(id);
+                            if (firstOnly) {
+                                break;
+                            }
+                        }
+                    } else if ("BPMNDiagram".equals(localName)) {
+                        break;
+                    }
+                }
+            }
+        } catch (XMLStreamException e) {
+            log.error("解析BPMN process id失败: " + e.getMessage());
+            return new ArrayList<>();
+        } finally {
+            closeQuietly(reader);
+        }
+        return ids;
+    }
+
+    private static void closeQuietly(XMLStreamReader reader) {
+        if (reader == null) {
+            return;
+        }
+        try {
+            reader.close();
+        } catch (XMLStreamException ignored) {
+            // 只是释放解析器资源
+        }
+    }
+}
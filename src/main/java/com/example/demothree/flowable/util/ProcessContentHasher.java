@@ -0,0 +1,151 @@
+package com.example.demothree.flowable.util;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * 流程内容校验和计算
+ * <p>
+ * 校验和 = 算法标识 + 摘要(资源名) + ":" + 摘要(内容)，内容以流的方式计算摘要，不整体读入内存。
+ * 规范化模式下按 StAX 事件计算摘要：忽略 BPMN-DI 图形布局、注释、空白文本、命名空间前缀与属性顺序，
+ * 只改布局或格式的文件不会被识别为新版本。
+ * MD5 且不规范化时不带算法标识，与旧版本保存的校验和格式一致。
+ */
+public final class ProcessContentHasher {
+
+    private static final Pattern LEGACY_FORMAT = Pattern.compile("[0-9a-f]{32}:[0-9a-f]{32}");
+
+    /**
+     * BPMN-DI 相关命名空间，规范化时整段跳过
+     */
+    private static final Set<String> DIAGRAM_NAMESPACES = Set.of(
+            "http://www.omg.org/spec/BPMN/20100524/DI",
+            "http://www.omg.org/spec/DD/20100524/DC",
+            "http://www.omg.org/spec/DD/20100524/DI");
+
+    private final String algorithm;
+    private final boolean canonical;
+    private final String prefix;
+
+    public ProcessContentHasher(String algorithm, boolean canonical) {
+        this.algorithm = algorithm;
+        this.canonical = canonical;
+        newDigest();
+        boolean legacy = "MD5".equalsIgnoreCase(algorithm) && !canonical;
+        this.prefix = legacy ? "" : algorithm.toLowerCase().replace("-", "") + (canonical ? "-c14n" : "") + ":";
+    }
+
+    /**
+     * 计算资源的校验和，不关闭输入流
+     */
+    public String checksum(String resourceName, InputStream content) throws IOException {
+        MessageDigest nameDigest = newDigest();
+        nameDigest.update(resourceName.getBytes(StandardCharsets.UTF_8));
+
+        MessageDigest contentDigest = newDigest();
+        if (canonical) {
+            digestCanonical(content, contentDigest);
+        } else {
+            DigestInputStream in = new DigestInputStream(content, contentDigest);
+            in.transferTo(OutputStream.nullOutputStream());
+        }
+
+        HexFormat hex = HexFormat.of();
+        return prefix + hex.formatHex(nameDigest.digest()) + ":" + hex.formatHex(contentDigest.digest());
+    }
+
+    /**
+     * 校验和是否由当前算法与模式计算，不是时需要按当前配置重新计算后再比较
+     */
+    public boolean isCurrentFormat(String checksum) {
+        if (checksum == null) {
+            return false;
+        }
+        return prefix.isEmpty() ? LEGACY_FORMAT.matcher(checksum).matches() : checksum.startsWith(prefix);
+    }
+
+    private void digestCanonical(InputStream content, MessageDigest digest) throws IOException {
+        XMLStreamReader reader = null;
+        try {
+            reader = XmlFactories.inputFactory().createXMLStreamReader(content);
+            int skipDepth = 0;
+            while (reader.hasNext()) {
+                switch (reader.next()) {
+                    case XMLStreamConstants.START_ELEMENT -> {
+                        if (skipDepth > 0 || DIAGRAM_NAMESPACES.contains(reader.getNamespaceURI())) {
+                            skipDepth++;
+                            continue;
+                        }
+                        update(digest, "<{" + nullToEmpty(reader.getNamespaceURI()) + "}" + reader.getLocalName());
+                        List<String> attributes = new ArrayList<>(reader.getAttributeCount());
+                        for (int i = 0; i < reader.getAttributeCount(); i++) {
+                            attributes.add("{" + nullToEmpty(reader.getAttributeNamespace(i)) + "}"
+                                    + reader.getAttributeLocalName(i) + "=" + reader.getAttributeValue(i));
+                        }
+                        Collections.sort(attributes);
+                        for (String attribute : attributes) {
+                            update(digest, "\u0001" + attribute);
+                        }
+                        update(digest, ">");
+                    }
+                    case XMLStreamConstants.END_ELEMENT -> {
+                        if (skipDepth > 0) {
+                            skipDepth--;
+                        } else {
+                            update(digest, "</");
+                        }
+                    }
+                    case XMLStreamConstants.CHARACTERS, XMLStreamConstants.CDATA -> {
+                        String text = reader.getText().trim();
+                        if (skipDepth == 0 && !text.isEmpty()) {
+                            update(digest, "\u0002" + text);
+                        }
+                    }
+                    default -> {
+                        // 注释、处理指令、空白等不参与摘要
+                    }
+                }
+            }
+        } catch (XMLStreamException e) {
+            throw new IOException("BPMN 规范化失败: " + e.getMessage(), e);
+        } finally {
+            if (reader != null) {
+                try {
+                    reader.close();
+                } catch (XMLStreamException ignored) {
+                    // 只是释放解析器资源
+                }
+            }
+        }
+    }
+
+    private MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance(algorithm);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalArgumentException("不支持的校验和算法: " + algorithm, e);
+        }
+    }
+
+    private static void update(MessageDigest digest, String token) {
+        digest.update(token.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String nullToEmpty(String value) {
+        return value == null ? "" : value;
+    }
+}
@@ -0,0 +1,36 @@
+-- Flowable 表上的附加索引（MySQL）
+-- 需在 Flowable 建表之后执行；按 information_schema.statistics 判断索引是否已存在，可重复执行
+
+-- 待办键集分页索引（Flowable 自带索引只覆盖单列，按处理人/候选组分页时需要回表排序）
+SET @ddl = IF((SELECT COUNT(*)
+               FROM information_schema.statistics
+               WHERE table_schema = DATABASE()
+                 AND UPPER(table_name) = 'ACT_RU_TASK'
+                 AND index_name = 'wf_idx_task_assignee_ctime') = 0,
+              'CREATE INDEX wf_idx_task_assignee_ctime ON ACT_RU_TASK (ASSIGNEE_, CREATE_TIME_, ID_)',
+              'SELECT 1');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @ddl = IF((SELECT COUNT(*)
+               FROM information_schema.statistics
+               WHERE table_schema = DATABASE()
+                 AND UPPER(table_name) = 'ACT_RU_IDENTITYLINK'
+                 AND index_name = 'wf_idx_ident_lnk_group_task') = 0,
+              'CREATE INDEX wf_idx_ident_lnk_group_task ON ACT_RU_IDENTITYLINK (GROUP_ID_, TYPE_, TASK_ID_)',
+              'SELECT 1');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @ddl = IF((SELECT COUNT(*)
+               FROM information_schema.statistics
+               WHERE table_schema = DATABASE()
+                 AND UPPER(table_name) = 'ACT_RU_IDENTITYLINK'
+                 AND index_name = 'wf_idx_ident_lnk_user_task') = 0,
+              'CREATE INDEX wf_idx_ident_lnk_user_task ON ACT_RU_IDENTITYLINK (USER_ID_, TYPE_, TASK_ID_)',
+              'SELECT 1');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
@@ -0,0 +1,114 @@
+-- 工作流扩展表（Flowable 自身表由引擎管理，此处仅包含业务侧扩展表；Flowable 表上的附加索引见 workflow-ext-index.sql）
+-- 应用启动时由 spring.sql.init 执行，语句须可重复执行
+
+-- 流程进度快照
+CREATE TABLE IF NOT EXISTS wf_progress_snapshot
+(
+    process_instance_id      VARCHAR(64)  NOT NULL COMMENT '流程实例ID',
+    process_definition_id    VARCHAR(255) NULL COMMENT '流程定义ID',
+    business_key             VARCHAR(255) NULL COMMENT '业务键',
+    status                   VARCHAR(20)  NOT NULL COMMENT '流程状态 RUNNING/COMPLETED',
+    start_time               DATETIME(3)  NULL COMMENT '开始时间',
+    end_time                 DATETIME(3)  NULL COMMENT '结束时间',
+    activity_count           INT          NOT NULL DEFAULT 0 COMMENT '已开始的活动数',
+    completed_activity_count INT          NOT NULL DEFAULT 0 COMMENT '已完成的活动数',
+    progress_percentage      INT          NOT NULL DEFAULT 0 COMMENT '进度百分比',
+    current_tasks            TEXT         NULL COMMENT '当前任务(JSON)',
+    node_status              TEXT         NULL COMMENT '节点状态(JSON)',
+    revision                 BIGINT       NOT NULL DEFAULT 0 COMMENT '修订号',
+    last_updated             DATETIME(3)  NULL COMMENT '最后更新时间',
+    PRIMARY KEY (process_instance_id)
+) ENGINE = InnoDB
+  DEFAULT CHARSET = utf8mb4 COMMENT ='流程进度快照';
+
+-- 流程部署校验和（启动时一次加载，避免逐个下载已部署的 BPMN 资源重新计算）
+CREATE TABLE IF NOT EXISTS wf_deployment_checksum
+(
+    process_key   VARCHAR(255) NOT NULL COMMENT '流程定义key',
+    checksum      VARCHAR(255) NOT NULL COMMENT '校验和',
+    deployment_id VARCHAR(64)  NULL COMMENT '部署ID',
+    resource_name VARCHAR(255) NULL COMMENT '资源文件名',
+    update_time   DATETIME(3)  NULL COMMENT '更新时间',
+    PRIMARY KEY (process_key)
+) ENGINE = InnoDB
+  DEFAULT CHARSET = utf8mb4 COMMENT ='流程部署校验和';
+
+-- 旧版本部署清理任务
+CREATE TABLE IF NOT EXISTS wf_cleanup_job
+(
+    id              BIGINT       NOT NULL AUTO_INCREMENT COMMENT 'id',
+    process_key     VARCHAR(255) NOT NULL COMMENT '流程定义key',
+    keep_versions   INT          NOT NULL COMMENT '保留的最近版本数',
+    cutoff_version  INT          NOT NULL COMMENT '删除版本号小于该值的流程定义',
+    dry_run         TINYINT(1)   NOT NULL DEFAULT 0 COMMENT '是否只估算不删除',
+    status          VARCHAR(20)  NOT NULL COMMENT '状态 PENDING/RUNNING/COMPLETED/FAILED',
+    total_count     INT          NOT NULL DEFAULT 0 COMMENT '待处理的流程定义数',
+    deleted_count   INT          NOT NULL DEFAULT 0 COMMENT '已删除的流程定义数',
+    deletable_count INT          NOT NULL DEFAULT 0 COMMENT '试运行时统计的可删除流程定义数',
+    skipped_count   INT          NOT NULL DEFAULT 0 COMMENT '跳过的流程定义数',
+    last_version    INT          NOT NULL DEFAULT 0 COMMENT '已处理到的版本号',
+    estimated_rows  BIGINT       NOT NULL DEFAULT 0 COMMENT '估算影响的行数',
+    estimate_detail TEXT         NULL COMMENT '各表估算行数(JSON)',
+    owner           VARCHAR(128) NULL COMMENT '执行该任务的节点',
+    error_message   VARCHAR(1000) NULL COMMENT '失败原因',
+    create_time     DATETIME(3)  NULL COMMENT '创建时间',
+    update_time     DATETIME(3)  NULL COMMENT '更新时间',
+    PRIMARY KEY (id),
+    KEY idx_status (status)
+) ENGINE = InnoDB
+  DEFAULT CHARSET = utf8mb4 COMMENT ='旧版本部署清理任务';
+
+-- 已有的清理任务表补充新增列（按 information_schema.columns 判断，可重复执行）
+SET @ddl = IF((SELECT COUNT(*)
+               FROM information_schema.columns
+               WHERE table_schema = DATABASE()
+                 AND table_name = 'wf_cleanup_job'
+                 AND column_name = 'deletable_count') = 0,
+              'ALTER TABLE wf_cleanup_job ADD COLUMN deletable_count INT NOT NULL DEFAULT 0 COMMENT ''试运行时统计的可删除流程定义数'' AFTER deleted_count',
+              'SELECT 1');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @ddl = IF((SELECT COUNT(*)
+               FROM information_schema.columns
+               WHERE table_schema = DATABASE()
+                 AND table_name = 'wf_cleanup_job'
+                 AND column_name = 'owner') = 0,
+              'ALTER TABLE wf_cleanup_job ADD COLUMN owner VARCHAR(128) NULL COMMENT ''执行该任务的节点'' AFTER estimate_detail',
+              'SELECT 1');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- 批量发起流程任务
+CREATE TABLE IF NOT EXISTS wf_bulk_start_job
+(
+    id            BIGINT        NOT NULL AUTO_INCREMENT COMMENT 'id',
+    process_key   VARCHAR(255)  NOT NULL COMMENT '流程定义key',
+    status        VARCHAR(20)   NOT NULL COMMENT '状态 PENDING/RUNNING/COMPLETED/FAILED',
+    watermark     BIGINT        NOT NULL DEFAULT 0 COMMENT '已连续提交完成的记录数',
+    read_count    BIGINT        NOT NULL DEFAULT 0 COMMENT '已读取的记录数',
+    started_count BIGINT        NOT NULL DEFAULT 0 COMMENT '已发起的流程实例数',
+    skipped_count BIGINT        NOT NULL DEFAULT 0 COMMENT '跳过的记录数',
+    failed_count  BIGINT        NOT NULL DEFAULT 0 COMMENT '失败的记录数',
+    throughput    DOUBLE        NOT NULL DEFAULT 0 COMMENT '发起速率（条/秒）',
+    error_message VARCHAR(1000) NULL COMMENT '最近一次失败原因',
+    create_time   DATETIME(3)   NULL COMMENT '创建时间',
+    update_time   DATETIME(3)   NULL COMMENT '更新时间',
+    PRIMARY KEY (id)
+) ENGINE = InnoDB
+  DEFAULT CHARSET = utf8mb4 COMMENT ='批量发起流程任务';
+
+-- 批量发起任务已发起的流程实例（与发起在同一事务中写入，续跑时按任务去重，不依赖历史表）
+CREATE TABLE IF NOT EXISTS wf_bulk_start_instance
+(
+    id                  BIGINT       NOT NULL AUTO_INCREMENT COMMENT 'id',
+    job_id              BIGINT       NOT NULL COMMENT '批量发起任务ID',
+    business_key        VARCHAR(255) NOT NULL COMMENT '业务键',
+    process_instance_id VARCHAR(64)  NOT NULL COMMENT '流程实例ID',
+    create_time         DATETIME(3)  NULL COMMENT '创建时间',
+    PRIMARY KEY (id),
+    KEY idx_job_business_key (job_id, business_key)
+) ENGINE = InnoDB
+  DEFAULT CHARSET = utf8mb4 COMMENT ='批量发起任务已发起的流程实例';
@@ -0,0 +1,58 @@
+package com.example.demothree.flowable.cache;
+
+import org.flowable.bpmn.converter.BpmnXMLConverter;
+import org.flowable.bpmn.model.BpmnModel;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamReader;
+import java.io.InputStream;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 预编译流程图测试（请假流程）
+ */
+public class CompiledProcessGraphTest {
+
+    private static CompiledProcessGraph graph;
+
+    @BeforeAll
+    static void compileLeaveProcess() throws Exception {
+        try (InputStream in = CompiledProcessGraphTest.class.getResourceAsStream("/processes/leave-process.bpmn20.xml")) {
+            XMLStreamReader reader = XMLInputFactory.newInstance().createXMLStreamReader(in, "UTF-8");
+            BpmnModel bpmnModel = new BpmnXMLConverter().convertToBpmnModel(reader);
+            graph = CompiledProcessGraph.compile("leaveProcess:1:1", bpmnModel);
+        }
+    }
+
+    @Test
+    void testRemainingPathLength() {
+        // 结束事件只剩自身
+        assertArrayEquals(new int[]{1, 1}, graph.getRemaining("endApproved"));
+        // HR备案 -> 结束 / HR备案 -> 总经理 -> 结束
+        assertArrayEquals(new int[]{2, 3}, graph.getRemaining("hrRecord"));
+        // 部门经理 -> 网关 -> 拒绝结束 / 部门经理 -> 网关 -> HR -> 总经理 -> 结束
+        assertArrayEquals(new int[]{3, 5}, graph.getRemaining("deptManagerApproval"));
+        assertNull(graph.getRemaining("unknown"));
+    }
+
+    @Test
+    void testPercentageIncreasesAlongPath() {
+        int dept = graph.percentage(List.of("deptManagerApproval"));
+        int hr = graph.percentage(List.of("hrRecord"));
+        int gm = graph.percentage(List.of("generalManagerApproval"));
+
+        assertTrue(dept < hr && hr < gm, dept + " < " + hr + " < " + gm);
+        assertTrue(gm <= 99);
+        assertEquals(-1, graph.percentage(List.of("unknown")));
+    }
+
+    @Test
+    void testParallelActivitiesUseSlowestBranch() {
+        assertEquals(graph.percentage(List.of("deptManagerApproval")),
+                graph.percentage(List.of("deptManagerApproval", "generalManagerApproval")));
+    }
+}
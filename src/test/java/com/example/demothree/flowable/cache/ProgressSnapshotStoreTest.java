@@ -0,0 +1,166 @@
+package com.example.demothree.flowable.cache;
+
+import com.example.demothree.config.WorkflowProperties;
+import com.example.demothree.flowable.entity.ProgressSnapshot;
+import com.example.demothree.flowable.mapper.ProgressSnapshotMapper;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 进度快照存储测试：以内存表模拟快照表，验证并发事务下的乐观写入
+ */
+public class ProgressSnapshotStoreTest {
+
+    private static final String INSTANCE_ID = "pi-1";
+
+    private final Map<String, ProgressSnapshot> table = new ConcurrentHashMap<>();
+
+    private ProgressSnapshotMapper mapper;
+
+    private ProgressSnapshotStore store;
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        mapper = mock(ProgressSnapshotMapper.class);
+        when(mapper.selectById(anyString())).thenAnswer(invocation -> {
+            ProgressSnapshot row = table.get((String) invocation.getArgument(0));
+            return row != null ? row.copy() : null;
+        });
+        when(mapper.insert(any(ProgressSnapshot.class))).thenAnswer(invocation -> {
+            ProgressSnapshot snapshot = invocation.getArgument(0);
+            if (table.putIfAbsent(snapshot.getProcessInstanceId(), snapshot.copy()) != null) {
+                throw new DuplicateKeyException(snapshot.getProcessInstanceId());
+            }
+            return 1;
+        });
+        when(mapper.updateIfRevision(any(ProgressSnapshot.class))).thenAnswer(invocation -> {
+            ProgressSnapshot snapshot = invocation.getArgument(0);
+            ProgressSnapshot row = table.get(snapshot.getProcessInstanceId());
+            if (row == null || row.getRevision() != snapshot.getBaseRevision()) {
+                return 0;
+            }
+            table.put(snapshot.getProcessInstanceId(), snapshot.copy());
+            return 1;
+        });
+        when(mapper.deleteById(anyString())).thenAnswer(invocation ->
+                table.remove((String) invocation.getArgument(0)) != null ? 1 : 0);
+
+        store = new ProgressSnapshotStore(mapper, new WorkflowProperties(), new ObjectMapper());
+        store.init();
+        store.save(new ProgressSnapshot()
+                .setProcessInstanceId(INSTANCE_ID)
+                .setStatus("RUNNING")
+                .setRevision(1));
+
+        executor = Executors.newFixedThreadPool(2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void testSequentialTransactions() {
+        inTransaction(() -> store.update(INSTANCE_ID, snapshot -> snapshot.setProgressPercentage(40)));
+        inTransaction(() -> store.update(INSTANCE_ID, snapshot -> snapshot.setProgressPercentage(60)));
+
+        assertEquals(3, table.get(INSTANCE_ID).getRevision());
+        assertEquals(60, table.get(INSTANCE_ID).getProgressPercentage());
+        assertEquals(60, store.get(INSTANCE_ID).getProgressPercentage());
+    }
+
+    @Test
+    void testInterleavedTransactionsDropSnapshot() throws Exception {
+        // 两个事务读取同一修订号，先提交者写入成功，后提交者修订号不符
+        CountDownLatch staged = new CountDownLatch(2);
+        CompletableFuture<Void> first = CompletableFuture.runAsync(() -> inTransaction(() -> {
+            store.update(INSTANCE_ID, snapshot -> snapshot.setProgressPercentage(40));
+            staged.countDown();
+            await(staged);
+        }), executor);
+        CompletableFuture<Void> second = CompletableFuture.runAsync(() -> inTransaction(() -> {
+            store.update(INSTANCE_ID, snapshot -> snapshot.getNodeStatusMap().put("approve", "COMPLETED"));
+            staged.countDown();
+            first.join();
+        }), executor);
+        second.get(10, TimeUnit.SECONDS);
+
+        // 后提交的事务不能覆盖先提交的修改，快照被删除并从内存淘汰，等待下一次读取重建
+        assertFalse(table.containsKey(INSTANCE_ID));
+        assertNull(store.get(INSTANCE_ID));
+    }
+
+    @Test
+    void testUpdatesInOneTransactionWriteOnce() {
+        inTransaction(() -> {
+            store.update(INSTANCE_ID, snapshot -> snapshot.setProgressPercentage(40));
+            store.update(INSTANCE_ID, snapshot -> snapshot.setProgressPercentage(60));
+            // 提交前对读者不可见
+            assertEquals(0, store.get(INSTANCE_ID).getProgressPercentage());
+        });
+
+        assertEquals(3, table.get(INSTANCE_ID).getRevision());
+        assertEquals(60, store.get(INSTANCE_ID).getProgressPercentage());
+    }
+
+    @Test
+    void testWriteFailureDoesNotFailCommit() {
+        doThrow(new QueryTimeoutException("lock wait timeout")).when(mapper).updateIfRevision(any(ProgressSnapshot.class));
+
+        // 写表异常不能抛出到提交流程，快照删除后等待重建
+        assertDoesNotThrow(() -> inTransaction(() ->
+                store.update(INSTANCE_ID, snapshot -> snapshot.setProgressPercentage(40))));
+
+        assertFalse(table.containsKey(INSTANCE_ID));
+        assertNull(store.get(INSTANCE_ID));
+    }
+
+    /**
+     * 模拟一次提交的事务：开启事务同步，执行后依次触发提交前与提交后回调
+     */
+    private static void inTransaction(Runnable work) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            work.run();
+            TransactionSynchronizationUtils.triggerBeforeCommit(false);
+            TransactionSynchronizationUtils.invokeAfterCompletion(
+                    TransactionSynchronizationManager.getSynchronizations(), TransactionSynchronization.STATUS_COMMITTED);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(10, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package com.example.demothree.flowable.service;
+
+import com.example.demothree.config.WorkflowProperties;
+import com.example.demothree.flowable.entity.BulkStartInstance;
+import com.example.demothree.flowable.entity.BulkStartJob;
+import com.example.demothree.flowable.mapper.BulkStartInstanceMapper;
+import com.example.demothree.flowable.mapper.BulkStartJobMapper;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.flowable.common.engine.impl.interceptor.Command;
+import org.flowable.engine.ManagementService;
+import org.flowable.engine.RepositoryService;
+import org.flowable.engine.RuntimeService;
+import org.flowable.engine.runtime.ProcessInstance;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 批量发起流程测试：watermark 按批次顺序推进、续跑跳过与去重、批次异常
+ */
+public class BulkProcessStartServiceTest {
+
+    private static final long JOB_ID = 1L;
+    private static final String PROCESS_KEY = "leaveProcess";
+
+    private final BulkStartJob job = new BulkStartJob();
+
+    /**
+     * 每次写任务表时的 watermark
+     */
+    private final Queue<Long> watermarks = new ConcurrentLinkedQueue<>();
+
+    /**
+     * 已发起的业务键 -> 发起次数
+     */
+    private final Map<String, AtomicInteger> started = new ConcurrentHashMap<>();
+
+    /**
+     * 本任务已记录的发起（模拟 wf_bulk_start_instance）
+     */
+    private final Queue<BulkStartInstance> instances = new ConcurrentLinkedQueue<>();
+
+    private RuntimeService runtimeService;
+    private BulkStartJobMapper jobMapper;
+    private ExecutorService executor;
+    private BulkProcessStartService service;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        job.setId(JOB_ID)
+                .setProcessKey(PROCESS_KEY)
+                .setStatus(BulkStartJob.STATUS_PENDING)
+                .setWatermark(0L)
+                .setReadCount(0L)
+                .setStartedCount(0L)
+                .setSkippedCount(0L)
+                .setFailedCount(0L)
+                .setThroughput(0D);
+
+        jobMapper = mock(BulkStartJobMapper.class);
+        when(jobMapper.selectById(anyLong())).thenReturn(job);
+        when(jobMapper.updateById(any(BulkStartJob.class))).thenAnswer(invocation -> {
+            watermarks.add(job.getWatermark());
+            return 1;
+        });
+
+        BulkStartInstanceMapper instanceMapper = mock(BulkStartInstanceMapper.class);
+        when(instanceMapper.insertBatch(any())).thenAnswer(invocation -> {
+            instances.addAll(invocation.getArgument(0));
+            return instances.size();
+        });
+        when(instanceMapper.selectStartedBusinessKeys(eq(JOB_ID), any())).thenAnswer(invocation -> {
+            Collection<String> businessKeys = invocation.getArgument(1);
+            return instances.stream()
+                    .filter(instance -> instance.getJobId() == JOB_ID)
+                    .map(BulkStartInstance::getBusinessKey)
+                    .filter(businessKeys::contains)
+                    .distinct()
+                    .collect(Collectors.toList());
+        });
+
+        runtimeService = mock(RuntimeService.class);
+        when(runtimeService.startProcessInstanceByKey(eq(PROCESS_KEY), anyString(), any())).thenAnswer(invocation -> {
+            String businessKey = invocation.getArgument(1);
+            started.computeIfAbsent(businessKey, key -> new AtomicInteger()).incrementAndGet();
+            ProcessInstance processInstance = mock(ProcessInstance.class);
+            when(processInstance.getId()).thenReturn("pi-" + businessKey);
+            return processInstance;
+        });
+
+        // 引擎命令直接在当前线程执行
+        ManagementService managementService = mock(ManagementService.class);
+        when(managementService.executeCommand(any(Command.class)))
+                .thenAnswer(invocation -> ((Command<Object>) invocation.getArgument(0)).execute(null));
+
+        WorkflowProperties workflowProperties = new WorkflowProperties();
+        workflowProperties.getBulkStart().setChunkSize(2);
+        workflowProperties.getBulkStart().setParallelism(3);
+
+        executor = Executors.newFixedThreadPool(3);
+        service = new BulkProcessStartService(runtimeService, mock(RepositoryService.class), managementService,
+                jobMapper, instanceMapper, workflowProperties, new ObjectMapper(), executor);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void testWatermarkWaitsForEarlierChunks() {
+        // 第一批阻塞到后两批都记录完成，期间 watermark 不能越过第一批
+        CountDownLatch laterChunksDone = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            watermarks.add(job.getWatermark());
+            if (job.getStartedCount() >= 4) {
+                laterChunksDone.countDown();
+            }
+            return 1;
+        }).when(jobMapper).updateById(any(BulkStartJob.class));
+        doAnswer(invocation -> {
+            assertTrue(laterChunksDone.await(10, TimeUnit.SECONDS));
+            assertEquals(0L, job.getWatermark());
+            started.computeIfAbsent("k0", key -> new AtomicInteger()).incrementAndGet();
+            ProcessInstance processInstance = mock(ProcessInstance.class);
+            when(processInstance.getId()).thenReturn("pi-k0");
+            return processInstance;
+        }).when(runtimeService).startProcessInstanceByKey(eq(PROCESS_KEY), eq("k0"), any());
+
+        BulkStartJob result = service.run(JOB_ID, records(0, 6));
+
+        assertEquals(BulkStartJob.STATUS_COMPLETED, result.getStatus());
+        assertEquals(6L, result.getWatermark());
+        assertEquals(6L, result.getStartedCount());
+        assertEquals(6, started.size());
+        // watermark 只停在批次边界且不回退
+        long previous = 0;
+        for (long watermark : watermarks) {
+            assertEquals(0, watermark % 2);
+            assertTrue(watermark >= previous);
+            previous = watermark;
+        }
+    }
+
+    @Test
+    void testResumeSkipsWatermarkAndStartedKeys() {
+        // 上次执行提交了前两条，k2 所在批次也已提交但 watermark 未来得及推进
+        job.setStatus(BulkStartJob.STATUS_FAILED).setWatermark(2L).setStartedCount(3L);
+        instances.add(new BulkStartInstance().setJobId(JOB_ID).setBusinessKey("k2").setProcessInstanceId("pi-k2"));
+        // 其他来源发起的同业务键实例不影响本任务
+        instances.add(new BulkStartInstance().setJobId(2L).setBusinessKey("k3").setProcessInstanceId("pi-other"));
+
+        BulkStartJob result = service.run(JOB_ID, records(0, 6));
+
+        assertEquals(BulkStartJob.STATUS_COMPLETED, result.getStatus());
+        assertEquals(6L, result.getWatermark());
+        assertEquals(List.of("k3", "k4", "k5"), started.keySet().stream().sorted().toList());
+        assertEquals(6L, result.getStartedCount());
+        assertEquals(1L, result.getSkippedCount());
+        assertEquals(0L, result.getFailedCount());
+    }
+
+    @Test
+    void testChunkExceptionFailsJob() {
+        // 第一次记录批次进度时写表失败（第 0 次为 RUNNING 状态）
+        AtomicInteger updates = new AtomicInteger();
+        doAnswer(invocation -> {
+            if (updates.getAndIncrement() == 1) {
+                throw new IllegalStateException("db down");
+            }
+            watermarks.add(job.getWatermark());
+            return 1;
+        }).when(jobMapper).updateById(any(BulkStartJob.class));
+
+        BulkStartJob result = service.run(JOB_ID, records(0, 2));
+
+        assertEquals(BulkStartJob.STATUS_FAILED, result.getStatus());
+        assertTrue(result.getErrorMessage().contains("db down"));
+    }
+
+    private static InputStream records(int from, int to) {
+        String ndjson = IntStream.range(from, to)
+                .mapToObj(i -> "{\"businessKey\":\"k" + i + "\"}")
+                .collect(Collectors.joining("\n"));
+        return new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8));
+    }
+}
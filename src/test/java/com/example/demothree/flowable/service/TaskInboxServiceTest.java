@@ -0,0 +1,119 @@
+package com.example.demothree.flowable.service;
+
+import com.example.demothree.flowable.dto.KeysetPage;
+import com.example.demothree.flowable.dto.TaskInboxItem;
+import com.example.demothree.flowable.mapper.TaskInboxMapper;
+import org.flowable.engine.IdentityService;
+import org.flowable.idm.api.Group;
+import org.flowable.idm.api.GroupQuery;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * 待办查询测试：以内存任务表模拟 "我的工作" 条件，验证组候选任务不会因查不到用户所在组而丢失
+ */
+public class TaskInboxServiceTest {
+
+    private static final String USER_ID = "zhangsan";
+    private static final String GROUP_ID = "managers";
+
+    /**
+     * 任务及其候选人、候选组（模拟 ACT_RU_TASK 与 ACT_RU_IDENTITYLINK）
+     */
+    private record CandidateTask(TaskInboxItem item, Set<String> candidateUsers, Set<String> candidateGroups) {
+    }
+
+    private final List<CandidateTask> tasks = List.of(
+            task("t1", USER_ID, Set.of(), Set.of()),
+            task("t2", null, Set.of(USER_ID), Set.of()),
+            task("t3", null, Set.of(), Set.of(GROUP_ID)),
+            task("t4", null, Set.of(), Set.of("finance")));
+
+    private TaskInboxMapper taskInboxMapper;
+    private IdentityService identityService;
+    private TaskInboxService service;
+
+    @BeforeEach
+    void setUp() {
+        taskInboxMapper = mock(TaskInboxMapper.class);
+        when(taskInboxMapper.selectMyWorkPage(anyString(), any(), any(), any(), any(), anyInt())).thenAnswer(invocation -> {
+            String userId = invocation.getArgument(0);
+            Collection<String> groupIds = invocation.getArgument(1);
+            return tasks.stream()
+                    .filter(task -> userId.equals(task.item().getAssignee())
+                            || (task.item().getAssignee() == null
+                            && (task.candidateUsers().contains(userId)
+                            || (groupIds != null && task.candidateGroups().stream().anyMatch(groupIds::contains)))))
+                    .map(CandidateTask::item)
+                    .collect(Collectors.toList());
+        });
+
+        identityService = mock(IdentityService.class);
+        service = new TaskInboxService(taskInboxMapper, identityService);
+    }
+
+    @Test
+    void testGroupCandidateTaskFromResolvedGroups() {
+        Group group = mock(Group.class);
+        when(group.getId()).thenReturn(GROUP_ID);
+        GroupQuery groupQuery = mock(GroupQuery.class);
+        when(identityService.createGroupQuery()).thenReturn(groupQuery);
+        when(groupQuery.groupMember(USER_ID)).thenReturn(groupQuery);
+        when(groupQuery.list()).thenReturn(List.of(group));
+
+        KeysetPage<TaskInboxItem> page = service.getMyWorkPage(USER_ID, null, null, 50);
+
+        assertEquals(List.of("t1", "t2", "t3"), ids(page));
+    }
+
+    @Test
+    void testExplicitGroupsSkipIdentityService() {
+        KeysetPage<TaskInboxItem> page = service.getMyWorkPage(USER_ID, List.of(GROUP_ID), null, 50);
+
+        assertEquals(List.of("t1", "t2", "t3"), ids(page));
+        verifyNoInteractions(identityService);
+    }
+
+    @Test
+    void testUnavailableIdentityServiceFailsLoudly() {
+        // 身份引擎未启用时 IdentityService 内部没有 IDM 服务
+        when(identityService.createGroupQuery()).thenThrow(new NullPointerException());
+
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+                () -> service.getMyWorkPage(USER_ID, null, null, 50));
+
+        assertTrue(e.getMessage().contains("groups"));
+        verify(taskInboxMapper, never()).selectMyWorkPage(anyString(), any(), any(), any(), any(), anyInt());
+    }
+
+    private static List<String> ids(KeysetPage<TaskInboxItem> page) {
+        return page.getItems().stream().map(TaskInboxItem::getId).collect(Collectors.toList());
+    }
+
+    private static CandidateTask task(String id, String assignee, Set<String> candidateUsers,
+                                      Set<String> candidateGroups) {
+        TaskInboxItem item = new TaskInboxItem();
+        item.setId(id);
+        item.setName("审批 " + id);
+        item.setCreateTime(new Date());
+        item.setPriority(50);
+        item.setAssignee(assignee);
+        return new CandidateTask(item, candidateUsers, candidateGroups);
+    }
+}
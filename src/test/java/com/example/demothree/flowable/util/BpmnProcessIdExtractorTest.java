@@ -0,0 +1,97 @@
+package com.example.demothree.flowable.util;
+
+import org.junit.jupiter.api.Test;
+import org.w3c.dom.Document;
+import org.w3c.dom.Node;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.xpath.XPathConstants;
+import javax.xml.xpath.XPathFactory;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * StAX 解析 process id 测试，结果需与原 DOM + XPath 方式一致
+ */
+public class BpmnProcessIdExtractorTest {
+
+    private static final String HEADER = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+            + "<definitions xmlns=\"http://www.omg.org/spec/BPMN/20100524/MODEL\""
+            + " xmlns:bpmndi=\"http://www.omg.org/spec/BPMN/20100524/DI\""
+            + " xmlns:omgdc=\"http://www.omg.org/spec/DD/20100524/DC\""
+            + " targetNamespace=\"test\">\n";
+
+    @Test
+    void testLeaveProcess() throws Exception {
+        byte[] bytes;
+        try (InputStream in = getClass().getResourceAsStream("/processes/leave-process.bpmn20.xml")) {
+            bytes = in.readAllBytes();
+        }
+        assertEquals(extractWithDom(bytes), BpmnProcessIdExtractor.extractFirst(bytes));
+        assertEquals(List.of("leaveProcess"), BpmnProcessIdExtractor.extractAll(bytes));
+    }
+
+    @Test
+    void testMultipleProcesses() {
+        byte[] bytes = (HEADER
+                + "<message id=\"msg\"/>\n"
+                + "<process id=\"first\"><startEvent id=\"s1\"/></process>\n"
+                + "<process id=\"second\"><subProcess id=\"sub\"><process id=\"nested\"/></subProcess></process>\n"
+                + "</definitions>").getBytes(StandardCharsets.UTF_8);
+
+        assertEquals(extractWithDom(bytes), BpmnProcessIdExtractor.extractFirst(bytes));
+        assertEquals(List.of("first", "second"), BpmnProcessIdExtractor.extractAll(bytes));
+    }
+
+    @Test
+    void testLargeDiagramSection() {
+        StringBuilder xml = new StringBuilder(HEADER)
+                .append("<process id=\"withDiagram\"><startEvent id=\"start\"/></process>\n")
+                .append("<bpmndi:BPMNDiagram id=\"diagram\"><bpmndi:BPMNPlane id=\"plane\" bpmnElement=\"withDiagram\">\n");
+        for (int i = 0; i < 20000; i++) {
+            xml.append("<bpmndi:BPMNShape id=\"shape").append(i).append("\" bpmnElement=\"start\">")
+                    .append("<omgdc:Bounds x=\"").append(i).append("\" y=\"0\" width=\"30\" height=\"30\"/>")
+                    .append("</bpmndi:BPMNShape>\n");
+        }
+        xml.append("</bpmndi:BPMNPlane></bpmndi:BPMNDiagram>\n</definitions>");
+        byte[] bytes = xml.toString().getBytes(StandardCharsets.UTF_8);
+
+        assertEquals(extractWithDom(bytes), BpmnProcessIdExtractor.extractFirst(bytes));
+        assertEquals(List.of("withDiagram"), BpmnProcessIdExtractor.extractAll(bytes));
+    }
+
+    @Test
+    void testInvalidInput() {
+        byte[] notBpmn = "<root><process id=\"x\"/></root>".getBytes(StandardCharsets.UTF_8);
+        assertNull(BpmnProcessIdExtractor.extractFirst(notBpmn));
+        assertNull(extractWithDom(notBpmn));
+
+        byte[] malformed = (HEADER + "<process id=\"broken\"").getBytes(StandardCharsets.UTF_8);
+        assertTrue(BpmnProcessIdExtractor.extractAll(malformed).isEmpty());
+
+        byte[] withDoctype = ("<?xml version=\"1.0\"?><!DOCTYPE definitions [<!ENTITY x SYSTEM \"file:///etc/passwd\">]>"
+                + "<definitions><process id=\"&x;\"/></definitions>").getBytes(StandardCharsets.UTF_8);
+        assertTrue(BpmnProcessIdExtractor.extractAll(withDoctype).isEmpty());
+    }
+
+    /**
+     * 原 SmartProcessDeploymentService 中的 DOM + XPath 实现，作为对照
+     */
+    private static String extractWithDom(byte[] xmlBytes) {
+        try (InputStream in = new ByteArrayInputStream(xmlBytes)) {
+            DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+            factory.setNamespaceAware(true);
+            Document doc = factory.newDocumentBuilder().parse(in);
+            Node node = (Node) XPathFactory.newInstance().newXPath()
+                    .compile("/*[local-name()='definitions']/*[local-name()='process']/@id")
+                    .evaluate(doc, XPathConstants.NODE);
+            return node == null ? null : node.getNodeValue();
+        } catch (Exception e) {
+            return null;
+        }
+    }
+}
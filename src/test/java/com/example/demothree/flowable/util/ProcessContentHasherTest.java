@@ -0,0 +1,82 @@
+package com.example.demothree.flowable.util;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.util.DigestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 流程内容校验和测试
+ */
+public class ProcessContentHasherTest {
+
+    private static final String PROCESS = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+            + "<definitions xmlns=\"http://www.omg.org/spec/BPMN/20100524/MODEL\""
+            + " xmlns:bpmndi=\"http://www.omg.org/spec/BPMN/20100524/DI\""
+            + " xmlns:omgdc=\"http://www.omg.org/spec/DD/20100524/DC\" targetNamespace=\"test\">\n"
+            + "  <process id=\"demo\" name=\"演示\" isExecutable=\"true\">\n"
+            + "    <startEvent id=\"start\"/>\n"
+            + "    <userTask id=\"approve\" name=\"审批\"/>\n"
+            + "    <sequenceFlow id=\"flow1\" sourceRef=\"start\" targetRef=\"approve\">\n"
+            + "      <conditionExpression><![CDATA[${pass}]]></conditionExpression>\n"
+            + "    </sequenceFlow>\n"
+            + "  </process>\n"
+            + "  <bpmndi:BPMNDiagram id=\"diagram\"><bpmndi:BPMNPlane id=\"plane\" bpmnElement=\"demo\">\n"
+            + "    <bpmndi:BPMNShape id=\"shape\" bpmnElement=\"start\"><omgdc:Bounds x=\"10\" y=\"10\" width=\"30\" height=\"30\"/></bpmndi:BPMNShape>\n"
+            + "  </bpmndi:BPMNPlane></bpmndi:BPMNDiagram>\n"
+            + "</definitions>";
+
+    @Test
+    void testLegacyMd5Format() throws IOException {
+        ProcessContentHasher hasher = new ProcessContentHasher("MD5", false);
+        String expected = DigestUtils.md5DigestAsHex("demo.bpmn20.xml".getBytes(StandardCharsets.UTF_8))
+                + ":" + DigestUtils.md5DigestAsHex(PROCESS.getBytes(StandardCharsets.UTF_8));
+
+        String checksum = checksum(hasher, PROCESS);
+        assertEquals(expected, checksum);
+        assertTrue(hasher.isCurrentFormat(checksum));
+    }
+
+    @Test
+    void testAlgorithmPrefix() throws IOException {
+        ProcessContentHasher sha256 = new ProcessContentHasher("SHA-256", false);
+        String checksum = checksum(sha256, PROCESS);
+
+        assertTrue(checksum.startsWith("sha256:"));
+        assertTrue(sha256.isCurrentFormat(checksum));
+        assertFalse(sha256.isCurrentFormat(checksum(new ProcessContentHasher("MD5", false), PROCESS)));
+        assertFalse(new ProcessContentHasher("MD5", false).isCurrentFormat(checksum));
+        assertFalse(new ProcessContentHasher("SHA-256", true).isCurrentFormat(checksum));
+        assertThrows(IllegalArgumentException.class, () -> new ProcessContentHasher("NO-SUCH", false));
+    }
+
+    @Test
+    void testCanonicalIgnoresLayoutAndFormatting() throws IOException {
+        ProcessContentHasher canonical = new ProcessContentHasher("SHA-256", true);
+        String original = checksum(canonical, PROCESS);
+
+        String reformatted = PROCESS
+                .replace("  <process id=\"demo\" name=\"演示\" isExecutable=\"true\">",
+                        "<!-- 注释 --><process isExecutable=\"true\"   id=\"demo\"\n name=\"演示\">")
+                .replace("x=\"10\"", "x=\"300\"")
+                .replace("xmlns:bpmndi=", "xmlns:di=")
+                .replace("bpmndi:", "di:");
+        assertEquals(original, checksum(canonical, reformatted));
+        assertNotEquals(checksum(new ProcessContentHasher("SHA-256", false), PROCESS),
+                checksum(new ProcessContentHasher("SHA-256", false), reformatted));
+
+        String changed = PROCESS.replace("name=\"审批\"", "name=\"复核\"");
+        assertNotEquals(original, checksum(canonical, changed));
+
+        String changedExpression = PROCESS.replace("${pass}", "${!pass}");
+        assertNotEquals(original, checksum(canonical, changedExpression));
+    }
+
+    private static String checksum(ProcessContentHasher hasher, String xml) throws IOException {
+        return hasher.checksum("demo.bpmn20.xml", new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)));
+    }
+}